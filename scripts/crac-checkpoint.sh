@@ -0,0 +1,48 @@
+#!/usr/bin/env sh
+# Genera una imagen con un checkpoint CRaC tomado después del warm-up.
+#
+# 1. Construye la etapa `crac` del Dockerfile.
+# 2. Arranca un contenedor con secretos ficticios, espera a la readiness (warm-up de arranque)
+#    y envía WARMUP_REQUESTS logins de prueba, uno cada WARMUP_INTERVAL segundos. Todos llegan desde la misma IP:
+#    a más de 5 por segundo (app.rate-limit.ip.refill-per-second) el rate limiting los rechazaría con 429 antes de
+#    llegar al verificador y al controlador. El rate limiting no se desactiva para el warm-up porque su
+#    configuración quedaría así en el checkpoint.
+# 3. Toma el checkpoint con jcmd y guarda el contenedor como imagen "$IMAGE:crac".
+#
+# Al ejecutar la imagen resultante con los secretos reales, CracRestoreHook vuelve a leer JWT_SECRET y
+# CLIENT_ID y fuerza la descarga del JWKS de Google. Antes del checkpoint Spring para los beans Lifecycle: el registro
+# de auditoría escribe y cierra su fichero (el volumen de AUDIT_DIR no se guarda con `docker commit`) y lo vuelve a
+# abrir con el primer login tras restaurar.
+# Uso: scripts/crac-checkpoint.sh [imagen]
+set -eu
+
+IMAGE="${1:-legendme-login-svc}"
+WARMUP_REQUESTS="${WARMUP_REQUESTS:-200}"
+WARMUP_INTERVAL="${WARMUP_INTERVAL:-0.2}"
+BODY='{"idToken":"eyJhbGciOiJSUzI1NiIsImtpZCI6Indhcm11cCJ9.eyJzdWIiOiJ3YXJtdXAifQ.c2ln"}'
+
+docker build --target crac -t "$IMAGE:crac-base" .
+
+cid="$(docker run -d -p 18080:8080 -p 18082:8082 \
+  --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE \
+  -e JWT_SECRET=checkpoint-only-secret-0123456789abcdef -e CLIENT_ID=checkpoint \
+  "$IMAGE:crac-base")"
+
+# Espera a que termine el warm-up de arranque (readiness UP).
+until curl -sf -o /dev/null http://localhost:18082/actuator/health/readiness; do sleep 0.2; done
+i=0
+limited=0
+while [ "$i" -lt "$WARMUP_REQUESTS" ]; do
+  code="$(curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' -d "$BODY" \
+    http://localhost:18080/legendme/login/google)"
+  [ "$code" != "429" ] || limited=$((limited + 1))
+  sleep "$WARMUP_INTERVAL"
+  i=$((i + 1))
+done
+[ "$limited" -eq 0 ] || echo "Aviso: $limited de $WARMUP_REQUESTS logins de warm-up rechazados por rate limiting" >&2
+
+docker exec "$cid" jcmd app.jar JDK.checkpoint
+docker wait "$cid" >/dev/null
+docker commit --change 'ENTRYPOINT ["sh", "crac-entrypoint.sh"]' "$cid" "$IMAGE:crac"
+docker rm "$cid" >/dev/null
+echo "Imagen con checkpoint: $IMAGE:crac (ejecutar con --cap-add CHECKPOINT_RESTORE y los secretos reales)"
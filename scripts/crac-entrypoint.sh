@@ -0,0 +1,12 @@
+#!/usr/bin/env sh
+# Punto de entrada de la imagen CRaC.
+# - Si $CRAC_DIR contiene un checkpoint, restaura el proceso (los secretos y el JWKS se recargan en afterRestore).
+# - Si no, arranca la aplicación preparada para guardar el checkpoint en $CRAC_DIR (jcmd app.jar JDK.checkpoint).
+set -eu
+
+if [ -n "$(ls -A "$CRAC_DIR" 2>/dev/null)" ]; then
+  exec java -XX:CRaCRestoreFrom="$CRAC_DIR" $JAVA_OPTS
+fi
+
+mkdir -p "$CRAC_DIR"
+exec java -XX:CRaCCheckpointTo="$CRAC_DIR" -Dspring.aot.enabled=true $JAVA_OPTS -jar app.jar
@@ -0,0 +1,41 @@
+#!/usr/bin/env sh
+# Compara HTTP/1.1 y HTTP/2 en claro (h2c) con h2load (nghttp2) sobre un endpoint autenticado.
+#
+# Envía el mismo número de peticiones con la misma concurrencia:
+# - HTTP/1.1: CONCURRENCY conexiones, una petición en vuelo por conexión.
+# - h2c (prior knowledge): H2_CONNECTIONS conexiones con CONCURRENCY / H2_CONNECTIONS streams cada una.
+# h2load informa de las conexiones, los bytes transferidos (cabeceras y cuerpos, con el ahorro de HPACK)
+# y la latencia por petición. Al final muestra el efecto de la compresión gzip sobre /actuator/prometheus.
+#
+# Requisitos: aplicación arrancada con HTTP2_ENABLED=true, h2load, openssl y JWT_SECRET definido.
+# Uso: scripts/http-bench.sh   (variables: BASE_URL, MANAGEMENT_URL, REQUESTS, CONCURRENCY, H2_CONNECTIONS)
+set -eu
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+MANAGEMENT_URL="${MANAGEMENT_URL:-http://localhost:8082}"
+REQUESTS="${REQUESTS:-20000}"
+CONCURRENCY="${CONCURRENCY:-128}"
+H2_CONNECTIONS="${H2_CONNECTIONS:-4}"
+URL="$BASE_URL/legendme/login/api/secure/ping"
+
+b64url() { openssl base64 -A | tr '+/' '-_' | tr -d '='; }
+
+# Token de acceso firmado con JWT_SECRET, con el mismo formato que emite el servicio.
+header="$(printf '{"alg":"HS256","typ":"JWT"}' | b64url)"
+payload="$(printf '{"sub":"%s","email":"bench@legendme.local","name":"Bench User","exp":%s}' \
+  "$(cat /proc/sys/kernel/random/uuid)" "$(( $(date +%s) + 3600 ))" | b64url)"
+signature="$(printf '%s.%s' "$header" "$payload" | openssl dgst -sha256 -hmac "$JWT_SECRET" -binary | b64url)"
+AUTH="authorization: Bearer $header.$payload.$signature"
+
+echo "== HTTP/1.1: $CONCURRENCY conexiones, $REQUESTS peticiones"
+h2load --h1 -n "$REQUESTS" -c "$CONCURRENCY" -H "$AUTH" "$URL"
+
+echo
+echo "== h2c: $H2_CONNECTIONS conexiones x $((CONCURRENCY / H2_CONNECTIONS)) streams, $REQUESTS peticiones"
+h2load -n "$REQUESTS" -c "$H2_CONNECTIONS" -m "$((CONCURRENCY / H2_CONNECTIONS))" -H "$AUTH" "$URL"
+
+echo
+echo "== Compresión de /actuator/prometheus"
+plain="$(curl -s -o /dev/null -w '%{size_download}' "$MANAGEMENT_URL/actuator/prometheus")"
+gzip="$(curl -s -o /dev/null -w '%{size_download}' -H 'Accept-Encoding: gzip' "$MANAGEMENT_URL/actuator/prometheus")"
+echo "sin comprimir: $plain bytes, gzip: $gzip bytes"
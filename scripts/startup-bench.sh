@@ -0,0 +1,91 @@
+#!/usr/bin/env sh
+# Mide el tiempo hasta el primer login servido (time-to-first-login) en cada modo de arranque.
+#
+# Para cada modo arranca la aplicación, envía POST /legendme/login/google con un idToken ficticio en bucle
+# y registra los milisegundos hasta la primera respuesta HTTP del endpoint (el 401 recorre el filtro,
+# el controlador y el verificador de Google, incluida la descarga del JWKS).
+#
+# Requisitos: haber ejecutado `mvn -Paot package` y definir CLIENT_ID y JWT_SECRET.
+# Uso: scripts/startup-bench.sh [jar|aot|cds|aot-cds|crac]...   (por defecto, todos salvo crac)
+#
+# Las cifras solo son válidas para el JDK con el que se ejecuta (`java -version`, que el script imprime): el
+# proyecto compila para Java 21 y es el JDK de las imágenes. Con otro JDK hay que compilar con -Djava.version=<n>
+# e indicarlo junto a los resultados.
+#
+# crac necesita un JDK con CRaC (por ejemplo Zulu 21 CRaC) en CRAC_JAVA_HOME y permisos para checkpoint/restore
+# (CAP_CHECKPOINT_RESTORE y CAP_SYS_PTRACE, o root). Primero arranca la aplicación con -XX:CRaCCheckpointTo,
+# envía WARMUP_REQUESTS logins al ritmo que permite el rate limiting por IP y toma el checkpoint con jcmd; después
+# mide el tiempo hasta el primer login desde -XX:CRaCRestoreFrom.
+set -eu
+
+PORT="${PORT:-8080}"
+MANAGEMENT_PORT="${MANAGEMENT_PORT:-8082}"
+JAR="$(ls target/*.jar | grep -v plain | head -n 1)"
+WORK="${WORK:-target/startup-bench}"
+URL="http://localhost:${PORT}/legendme/login/google"
+BODY='{"idToken":"eyJhbGciOiJSUzI1NiIsImtpZCI6ImJlbmNoIn0.eyJzdWIiOiJiZW5jaCJ9.c2ln"}'
+WARMUP_REQUESTS="${WARMUP_REQUESTS:-200}"
+# 5 peticiones por segundo: la reposición por defecto del bucket por IP (app.rate-limit.ip.refill-per-second).
+WARMUP_INTERVAL="${WARMUP_INTERVAL:-0.2}"
+
+now_ms() { date +%s%3N; }
+
+login() { curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' -d "$BODY" "$URL"; }
+
+prepare_crac() {
+  java_bin="${CRAC_JAVA_HOME:?CRAC_JAVA_HOME debe apuntar a un JDK con CRaC}/bin"
+  rm -rf "$WORK" && mkdir -p "$WORK/crac"
+  "$java_bin/java" -XX:CRaCCheckpointTo="$WORK/crac" -jar "$JAR" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" \
+    >"target/startup-bench-crac-checkpoint.log" 2>&1 &
+  cpid=$!
+  until curl -sf -o /dev/null "http://localhost:${MANAGEMENT_PORT}/actuator/health/readiness"; do sleep 0.2; done
+  i=0
+  while [ "$i" -lt "$WARMUP_REQUESTS" ]; do
+    [ "$(login)" != "429" ] || echo "aviso: login de warm-up rechazado por rate limiting" >&2
+    sleep "$WARMUP_INTERVAL"
+    i=$((i + 1))
+  done
+  "$java_bin/jcmd" "$cpid" JDK.checkpoint >/dev/null
+  wait "$cpid" 2>/dev/null || true
+}
+
+prepare_cds() {
+  if [ ! -f "$WORK/app.jsa" ]; then
+    rm -rf "$WORK" && mkdir -p "$WORK"
+    java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" >/dev/null
+    # Ejecución de entrenamiento: arranca el contexto, lo cierra y vuelca las clases cargadas.
+    java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+      -Dspring.aot.enabled="$1" -jar "$WORK/app/$(basename "$JAR")" >/dev/null 2>&1
+  fi
+}
+
+run_mode() {
+  mode="$1"
+  case "$mode" in
+    jar)     set -- java -jar "$JAR" ;;
+    aot)     set -- java -Dspring.aot.enabled=true -jar "$JAR" ;;
+    cds)     prepare_cds false; set -- java -XX:SharedArchiveFile="$WORK/app.jsa" -jar "$WORK/app/$(basename "$JAR")" ;;
+    aot-cds) prepare_cds true; set -- java -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true -jar "$WORK/app/$(basename "$JAR")" ;;
+    crac)    prepare_crac; set -- "$CRAC_JAVA_HOME/bin/java" -XX:CRaCRestoreFrom="$WORK/crac" ;;
+    *) echo "Modo desconocido: $mode" >&2; exit 1 ;;
+  esac
+
+  # El proceso restaurado conserva los argumentos (y el puerto) del checkpoint.
+  [ "$mode" = crac ] || set -- "$@" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT"
+  start="$(now_ms)"
+  "$@" >"target/startup-bench-$mode.log" 2>&1 &
+  pid=$!
+  until code="$(login)" && [ "$code" != "000" ]; do
+    sleep 0.05
+  done
+  end="$(now_ms)"
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  echo "$mode: primer login (HTTP $code) en $((end - start)) ms"
+}
+
+[ "$#" -gt 0 ] || set -- jar aot cds aot-cds
+java -version 2>&1 | head -n 1
+for mode in "$@"; do
+  rm -rf "$WORK"
+  run_mode "$mode"
+done
@@ -2,9 +2,17 @@ package com.legendme.login.svc.adapters.in.rest;
 
 import com.legendme.login.svc.domain.usecase.AuthenticateWithGoogle;
 import com.legendme.login.svc.application.port.in.AuthController;
+import com.legendme.login.svc.infrastructure.audit.LoginAuditLog;
+import com.legendme.login.svc.infrastructure.cache.IdempotencyCache;
+import com.legendme.login.svc.infrastructure.cache.TieredCache;
+import com.legendme.login.svc.shared.exceptions.AuthFailureException;
+import com.legendme.login.svc.shared.exceptions.ErrorException;
+import com.legendme.login.svc.shared.logging.SuccessLogSampler;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,22 +25,67 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("legendme/login")
 @RequiredArgsConstructor
 public class AuthControllerImpl implements AuthController {
+   public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+   public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
    private final AuthenticateWithGoogle useCase;
+   private final SuccessLogSampler successLogs;
+   private final LoginAuditLog audit;
+   private final IdempotencyCache<AuthenticateWithGoogle.Result> idempotency;
 
    /**
     * Endpoint para autenticar a un usuario utilizando Google Sign-In.
+    * Cada intento, correcto o no, se publica en el registro de auditoría ({@link LoginAuditLog}).
+    *
+    * Con la cabecera Idempotency-Key, los reintentos con la misma clave y el mismo idToken reciben la respuesta
+    * del primer login correcto (con la cabecera Idempotent-Replayed: true) sin volver a verificar el token,
+    * actualizar el usuario ni emitir tokens nuevos; ver {@link IdempotencyCache}.
     *
     * @param req La solicitud de inicio de sesión con Google, que contiene el token de identificación.
+    * @param idempotencyKey Valor opcional de la cabecera Idempotency-Key.
+    * @param request La petición HTTP, de la que se toman la IP y el User-Agent para la auditoría.
     * @return Una respuesta HTTP con los tokens de autenticación y la información del usuario.
     */
    @PostMapping("/google")
-    public ResponseEntity<AuthResponse> google(@Valid @RequestBody GoogleSignInRequest req) {
+    public ResponseEntity<AuthResponse> google(@Valid @RequestBody GoogleSignInRequest req,
+                                               @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                               HttpServletRequest request) {
+      long start = System.nanoTime();
       try {
-         log.info("Iniciando proceso de autenticación con Google");
-         var r = useCase.authenticate(req.idToken());
-         return ResponseEntity.ok(new AuthResponse(r.tokens().accessToken(), r.tokens().refreshToken(), r.userId(), r.email(), r.name()));
+         log.debug("Iniciando proceso de autenticación con Google");
+         AuthenticateWithGoogle.Result r;
+         boolean replayed = false;
+         if (idempotencyKey == null) {
+            r = useCase.authenticate(req.idToken());
+         } else {
+            var execution = idempotency.execute(idempotencyKey, TieredCache.hashKey(String.valueOf(req.idToken())),
+                    () -> useCase.authenticate(req.idToken()));
+            r = execution.value();
+            replayed = execution.replayed();
+         }
+         if (successLogs.sample()) {
+            log.info("Autenticación con Google completada, userId: {}, replayed: {}", r.userId(), replayed);
+         }
+         audit.record(start, HttpStatus.OK.value(), replayed ? LoginAuditLog.RESULT_REPLAYED : LoginAuditLog.RESULT_OK, r.sub(), request);
+         var body = new AuthResponse(r.tokens().accessToken(), r.tokens().refreshToken(), r.userId(), r.email(), r.name());
+         if (replayed) {
+            return ResponseEntity.ok().header(IDEMPOTENT_REPLAYED, "true").body(body);
+         }
+         return ResponseEntity.ok(body);
+      } catch (ErrorException ex) {
+         // El mensaje puede contener datos del usuario; solo se registra el código. Los rechazos esperados
+         // (AuthFailureException) ya quedan en la auditoría, así que no se escriben en el log salvo en debug.
+         if (ex instanceof AuthFailureException) {
+            log.debug("Login rechazado, code: {}", ex.errorCode());
+         } else {
+            log.warn("Error en AuthenticateWithGoogle, code: {}", ex.errorCode());
+         }
+         HttpStatus status = ex.status() != null ? ex.status() : HttpStatus.BAD_REQUEST;
+         audit.record(start, status.value(), ex.errorCode(), null, request);
+         throw ex;
       } catch (Exception ex) {
-         log.error("Error en AuthenticateWithGoogle, error: {}", ex.getMessage());
+         log.error("Error en AuthenticateWithGoogle, error: {}", ex.getClass().getSimpleName());
+         audit.record(start, HttpStatus.INTERNAL_SERVER_ERROR.value(), "ERROR", null, request);
          throw ex;
       }
    }
@@ -0,0 +1,61 @@
+package com.legendme.login.svc.adapters.in.rest;
+
+import com.legendme.login.svc.adapters.out.http.PeerUserDirectory;
+import com.legendme.login.svc.adapters.out.http.UserDirectoryClient;
+import com.legendme.login.svc.adapters.out.http.dto.UserResponse;
+import com.legendme.login.svc.infrastructure.peer.PeerMembership;
+import com.legendme.login.svc.shared.dto.GoogleUserPayload;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Endpoint interno por el que las réplicas piden un usuario a la réplica dueña de su sub
+ * (ver {@link PeerUserDirectory}).
+ *
+ * Atiende la petición siempre en local, sin volver a consultar el anillo, para evitar reenvíos en bucle
+ * mientras dos réplicas tienen vistas distintas de los miembros. Solo acepta peticiones con la cabecera
+ * {@link PeerUserDirectory#SECRET_HEADER} igual a app.peer.secret y recibidas por el conector interno
+ * (app.peer.port); por el conector público, o con app.peer.enabled=false, responde 404.
+ */
+@RestController
+public class PeerUserController {
+    private final UserDirectoryClient userDirectory;
+    private final PeerMembership membership;
+    private final byte[] secret;
+
+    public PeerUserController(UserDirectoryClient userDirectory, PeerMembership membership,
+                              @Value("${app.peer.secret:}") String secret) {
+        this.userDirectory = userDirectory;
+        this.membership = membership;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param peerSecret Secreto compartido entre réplicas.
+     * @param payload    Datos del usuario de Google.
+     * @param request    Petición, para comprobar que llega por el conector interno.
+     * @return El usuario devuelto (o cacheado) por el servicio de usuarios.
+     */
+    @PostMapping(PeerUserDirectory.PATH)
+    public ResponseEntity<UserResponse> upsert(
+            @RequestHeader(value = PeerUserDirectory.SECRET_HEADER, required = false) String peerSecret,
+            @RequestBody GoogleUserPayload payload,
+            HttpServletRequest request) {
+        if (!membership.isEnabled() || request.getLocalPort() != membership.port()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (peerSecret == null || !MessageDigest.isEqual(secret, peerSecret.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(userDirectory.upsertGoogleUser(payload));
+    }
+}
@@ -0,0 +1,162 @@
+package com.legendme.login.svc.adapters.out.http;
+
+import com.legendme.login.svc.adapters.out.http.dto.UserResponse;
+import com.legendme.login.svc.application.port.out.UserDirectoryPort;
+import com.legendme.login.svc.infrastructure.cache.TieredCache;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.infrastructure.peer.PeerMembership;
+import com.legendme.login.svc.shared.dto.GoogleUserPayload;
+import com.legendme.login.svc.shared.exceptions.ErrorException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+
+
+/**
+ * Directorio de usuarios repartido entre réplicas mediante hashing consistente.
+ *
+ * Cada sub de Google tiene una réplica dueña según el {@link PeerMembership#view() anillo}. Solo la dueña llama a
+ * legendme-users-svc (a través de {@link UserDirectoryClient}, que agrupa las llamadas concurrentes de un mismo sub);
+ * el resto le pide el usuario por {@code POST /internal/peer/users} (en CBOR) y guarda la respuesta en su caché local.
+ * Así hay como máximo una llamada en vuelo por sub en todo el clúster, y el número de llamadas al servicio de
+ * usuarios no crece al añadir réplicas.
+ *
+ * Solo si la dueña no llega a recibir la petición (conexión rechazada, host desconocido) o la rechaza con un 4xx
+ * (endpoint no disponible, secreto distinto), la réplica llama directamente al servicio de usuarios. Un timeout o un
+ * 5xx de la dueña se propagan como G-LOG-07 sin reintentar: la dueña puede tener ya la llamada en curso y repetirla
+ * aquí duplicaría la carga sobre el servicio de usuarios justo cuando está lento.
+ *
+ * Sustituye siempre a {@link UserDirectoryClient} como {@link UserDirectoryPort}, pero con app.peer.enabled=false
+ * (evaluado al arrancar, también en la imagen AOT) delega directamente en él.
+ */
+@Slf4j
+@Primary
+@Component
+public class PeerUserDirectory implements UserDirectoryPort {
+    public static final String PATH = "/internal/peer/users";
+    public static final String SECRET_HEADER = "X-Peer-Secret";
+
+    private final UserDirectoryClient local;
+    private final PeerMembership membership;
+    private final TieredCache<UserResponse> cache;
+    private final RestClient restClient;
+    private final String secret;
+    private final LoginMetrics metrics;
+
+    public PeerUserDirectory(
+            UserDirectoryClient local,
+            PeerMembership membership,
+            TieredCache<UserResponse> cache,
+            RestClient.Builder restClientBuilder,
+            @Qualifier("peerRequestFactory") ReactorClientHttpRequestFactory requestFactory,
+            @Value("${app.peer.secret:}") String secret,
+            LoginMetrics metrics) {
+        if (membership.isEnabled() && secret.isBlank()) {
+            throw new IllegalStateException("app.peer.enabled=true requiere app.peer.secret (PEER_SECRET)");
+        }
+        this.local = local;
+        this.membership = membership;
+        this.cache = cache;
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.secret = secret;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Obtiene el usuario de la réplica dueña de su sub, o del servicio de usuarios si la dueña es esta réplica.
+     *
+     * @param p objeto GoogleUserPayload con la información proveniente del token de Google.
+     * @return UserResponse con los datos del usuario creados o actualizados.
+     * @throws ErrorException si la dueña o el servicio de usuarios devuelven un error.
+     */
+    @Override
+    public UserResponse upsertGoogleUser(GoogleUserPayload p) {
+        if (!membership.isEnabled()) {
+            return local.upsertGoogleUser(p);
+        }
+        PeerMembership.View view = membership.view();
+        String owner = p.googleSub() != null ? view.ring().owner(p.googleSub()) : null;
+        if (owner == null || view.isSelf(owner)) {
+            metrics.peerLookup("local");
+            return local.upsertGoogleUser(p);
+        }
+        try {
+            return cache.get(UserDirectoryClient.cacheKey(p),
+                    key -> TieredCache.Entry.of(fetchFromOwner(owner, p), cache.maxTtl()));
+        } catch (OwnerUnavailableException e) {
+            // Fuera del cargador: el cliente local usa la misma clave de caché y esperaría a su propia carga.
+            metrics.peerLookup("fallback");
+            return local.upsertGoogleUser(p);
+        }
+    }
+
+    private UserResponse fetchFromOwner(String owner, GoogleUserPayload p) {
+        UserResponse user;
+        try {
+            user = restClient.post()
+                    .uri(owner + PATH)
+                    .header(SECRET_HEADER, secret)
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .body(p)
+                    .retrieve()
+                    .body(UserResponse.class);
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().is5xxServerError()) {
+                throw ownerError(owner, e);
+            }
+            log.warn("La réplica {} rechazó la consulta de usuario, status: {}", owner, e.getStatusCode());
+            throw OwnerUnavailableException.INSTANCE;
+        } catch (RuntimeException e) {
+            if (isUnreachable(e)) {
+                log.debug("Réplica {} no disponible: {}", owner, e.toString());
+                throw OwnerUnavailableException.INSTANCE;
+            }
+            throw ownerError(owner, e);
+        }
+        if (user == null) {
+            throw ownerError(owner, null);
+        }
+        metrics.peerLookup("owner");
+        return user;
+    }
+
+    private ErrorException ownerError(String owner, Exception cause) {
+        log.warn("Error al consultar la réplica {}: {}", owner, cause != null ? cause.toString() : "respuesta vacía");
+        metrics.peerLookup("owner_error");
+        return new ErrorException("Error al llamar al servicio de usuarios", "G-LOG-07", HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * @return {@code true} si la petición no llegó a la dueña: conexión rechazada o sin establecer, o host desconocido.
+     */
+    private static boolean isUnreachable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * La dueña no recibió la petición; señal interna para llamar al servicio de usuarios desde esta réplica.
+     */
+    private static final class OwnerUnavailableException extends RuntimeException {
+        static final OwnerUnavailableException INSTANCE = new OwnerUnavailableException();
+
+        private OwnerUnavailableException() {
+            super(null, null, false, false);
+        }
+    }
+}
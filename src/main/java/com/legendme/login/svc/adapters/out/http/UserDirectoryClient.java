@@ -3,17 +3,24 @@ package com.legendme.login.svc.adapters.out.http;
 import com.legendme.login.svc.adapters.out.http.dto.UserRequest;
 import com.legendme.login.svc.adapters.out.http.dto.UserResponse;
 import com.legendme.login.svc.application.port.out.UserDirectoryPort;
+import com.legendme.login.svc.infrastructure.cache.TieredCache;
+import com.legendme.login.svc.infrastructure.jfr.UsersSvcUpsertEvent;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
 import com.legendme.login.svc.shared.dto.GoogleUserPayload;
 import com.legendme.login.svc.shared.exceptions.ErrorException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Cliente HTTP responsable de comunicarse con el microservicio de usuarios (legendme-users-svc).
@@ -30,9 +37,15 @@ import org.springframework.web.client.RestClient;
  * En caso de error en la comunicación o respuesta inválida, lanza una ErrorException con
  * el código y estado HTTP correspondiente.
  *
+ * Las respuestas se guardan en una {@link TieredCache} durante app.cache.users.ttl, con una clave formada por el
+ * sub de Google y una huella de los datos que se envían al servicio (nombre y email, ver {@link #cacheKey}): un login
+ * repetido con los mismos datos no vuelve a llamar al servicio de usuarios, y cualquier cambio se propaga.
+ *
  * Variables:
  * - restClient: cliente HTTP de Spring usado para las solicitudes REST.
  * - url: URL base del servicio de usuarios, configurada en legendme-users-svc.url.
+ * - mediaType: formato del intercambio (application/json o application/cbor), en legendme-users-svc.media-type.
+ * - cache: usuarios ya registrados, por sub de Google y huella de sus datos.
  *
  */
 @Slf4j
@@ -40,21 +53,27 @@ import org.springframework.web.client.RestClient;
 @RequiredArgsConstructor
 public class UserDirectoryClient implements UserDirectoryPort {
     private final RestClient restClient;
-    private final Logger logger = LoggerFactory.getLogger(UserDirectoryClient.class);
+    private final LoginMetrics metrics;
+    private final TieredCache<UserResponse> cache;
 
     @Value("${legendme-users-svc.url}")
     private String url;
 
+    @Value("${legendme-users-svc.media-type:application/json}")
+    private MediaType mediaType;
+
 
     /**
      * Realiza un upsert (crear o actualizar) de un usuario autenticado con Google en el servicio de usuarios.
      *
      * Pasos del proceso:
-     * 1. Loguea el inicio del proceso y los datos del usuario de Google.
+     * 0. Si el usuario está en caché con los mismos datos, lo devuelve sin llamar al servicio. Las llamadas
+     *    concurrentes para un mismo sub y los mismos datos se agrupan en una sola.
+     * 1. Loguea en debug el inicio del proceso y los datos (enmascarados) del usuario de Google.
      * 2. Construye un UserRequest a partir del GoogleUserPayload recibido.
      * 3. Envía una solicitud POST al endpoint configurado (legendme-users-svc.url).
      * 4. Valida que la respuesta HTTP sea 200 OK y que el cuerpo no sea nulo.
-     * 5. Retorna el cuerpo de la respuesta como un objeto UserResponse.
+     * 5. Guarda la respuesta en caché y la retorna.
      *
      * Si la respuesta no es exitosa o el cuerpo es nulo, se lanza una ErrorException.
      *
@@ -64,31 +83,101 @@ public class UserDirectoryClient implements UserDirectoryPort {
      */
     @Override
     public UserResponse upsertGoogleUser(GoogleUserPayload p) {
-        log.info("Iniciando Google Upserting, User: {}", p.toString());
+        log.debug("Iniciando Google Upserting, User: {}", p);
 
-        UserRequest request = buildRequest(p);
+        if (p.googleSub() == null) {
+            return callUsersSvc(p);
+        }
+        return cache.get(cacheKey(p), key -> TieredCache.Entry.of(callUsersSvc(p), cache.maxTtl()));
+    }
 
-        logger.info("Iniciando llamada al servicio: {}, request: {}", url, request.toString());
+    /**
+     * Clave de la caché de usuarios: el sub seguido de una huella de todos los campos del payload que usa
+     * {@link #buildRequest} (nombre y email). Si cambia alguno, la clave es otra y el upsert se repite.
+     *
+     * @param p objeto GoogleUserPayload con la información proveniente del token de Google.
+     * @return La clave.
+     */
+    public static String cacheKey(GoogleUserPayload p) {
+        return p.googleSub() + ':' + TieredCache.hashKey(p.name() + '\n' + p.email());
+    }
 
-        var response = restClient.post()
-                .uri(url)
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(request)
-                .retrieve()
-                .toEntity(UserResponse.class);
+    private UserResponse callUsersSvc(GoogleUserPayload p) {
+        UserRequest request = buildRequest(p);
 
-        if (response.getStatusCode() != HttpStatus.OK) {
-            log.error("Error al llamar al servicio de usuarios, Status: {}, Body: {}",
-                    response.getStatusCode(), response.hasBody() ? response.getBody() : "No Body");
-            throw new ErrorException("Error al llamar al servicio de usuarios", "G-LOG-07", HttpStatus.INTERNAL_SERVER_ERROR);
+        log.debug("Iniciando llamada al servicio: {}, request: {}", url, request);
+
+        long start = System.nanoTime();
+        var event = new UsersSvcUpsertEvent();
+        event.begin();
+        int status = 0;
+        String outcome = "ERROR";
+        try {
+            final ResponseEntity<UserResponse> response;
+            try {
+                response = restClient.post()
+                        .uri(url)
+                        .contentType(mediaType)
+                        .accept(mediaType)
+                        .body(request)
+                        .retrieve()
+                        .toEntity(UserResponse.class);
+            } catch (RestClientResponseException e) {
+                status = e.getStatusCode().value();
+                throw e;
+            }
+            status = response.getStatusCode().value();
+
+            if (response.getStatusCode() != HttpStatus.OK) {
+                log.error("Error al llamar al servicio de usuarios, Status: {}", response.getStatusCode());
+                outcome = "G-LOG-07";
+                throw new ErrorException("Error al llamar al servicio de usuarios", "G-LOG-07", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+
+            if (response.getBody() == null) {
+                log.error("El servicio de usuarios devolvió un body null");
+                outcome = "G-LOG-08";
+                throw new ErrorException("Error al llamar al servicio de usuarios", "G-LOG-08", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+
+            outcome = "OK";
+            return response.getBody();
+        } finally {
+            metrics.recordUpsert(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.status = status;
+                event.outcome = outcome;
+                event.commit();
+            }
         }
+    }
 
-        if (response.getBody() == null) {
-            log.error("El servicio de usuarios devolvió un body null");
-            throw new ErrorException("Error al llamar al servicio de usuarios", "G-LOG-08", HttpStatus.INTERNAL_SERVER_ERROR);
+    /**
+     * Abre conexiones con el servicio de usuarios para dejarlas en el pool antes de recibir tráfico.
+     *
+     * Envía {@code connections} peticiones OPTIONS concurrentes a la URL configurada; el código de respuesta
+     * es indiferente, solo interesa establecer las conexiones.
+     *
+     * @param connections Número de conexiones a abrir.
+     * @return El número de peticiones que obtuvieron respuesta.
+     */
+    public int warmUpConnections(int connections) {
+        List<CompletableFuture<Boolean>> calls = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    restClient.options().uri(url).retrieve()
+                            .onStatus(status -> true, (req, res) -> { })
+                            .toBodilessEntity();
+                    return true;
+                } catch (Exception e) {
+                    log.debug("No se pudo abrir conexión con el servicio de usuarios: {}", e.getMessage());
+                    return false;
+                }
+            }));
         }
-
-        return response.getBody();
+        return (int) calls.stream().filter(CompletableFuture::join).count();
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.legendme.login.svc.adapters.out.http.dto;
 
+import com.legendme.login.svc.shared.logging.Pii;
+
 import java.util.Date;
 
 /**
@@ -18,4 +20,14 @@ import java.util.Date;
  */
 public record UserRequest(String name, String lastname, Date birthDate, String username, String email, String password, String provider) {
 
+    /**
+     * Representación apta para logs, con los datos personales enmascarados.
+     */
+    @Override
+    public String toString() {
+        return "UserRequest[name=" + Pii.redact(name) + ", lastname=" + Pii.redact(lastname)
+                + ", birthDate=" + Pii.redact(birthDate) + ", username=" + Pii.redact(username)
+                + ", email=" + Pii.email(email) + ", password=" + Pii.redact(password)
+                + ", provider=" + provider + "]";
+    }
 }
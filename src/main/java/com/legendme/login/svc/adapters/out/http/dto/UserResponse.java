@@ -1,5 +1,7 @@
 package com.legendme.login.svc.adapters.out.http.dto;
 
+import com.legendme.login.svc.shared.logging.Pii;
+
 import java.util.Date;
 import java.util.UUID;
 
@@ -25,4 +27,15 @@ import java.util.UUID;
  *
  */
 public record UserResponse(UUID id, String name, String lastname, Date birthDate, String username, String email, String provider, boolean active, Date createdAt, Date updatedAt) {
+
+    /**
+     * Representación apta para logs, con los datos personales enmascarados.
+     */
+    @Override
+    public String toString() {
+        return "UserResponse[id=" + id + ", name=" + Pii.redact(name) + ", lastname=" + Pii.redact(lastname)
+                + ", birthDate=" + Pii.redact(birthDate) + ", username=" + Pii.redact(username)
+                + ", email=" + Pii.email(email) + ", provider=" + provider + ", active=" + active
+                + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + "]";
+    }
 }
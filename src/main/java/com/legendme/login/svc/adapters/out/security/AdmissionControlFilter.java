@@ -0,0 +1,133 @@
+package com.legendme.login.svc.adapters.out.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.infrastructure.concurrency.AdmissionScheduler;
+import com.legendme.login.svc.infrastructure.concurrency.AdmissionScheduler.Decision;
+import com.legendme.login.svc.infrastructure.concurrency.AdmissionScheduler.RequestClass;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.dto.Errors;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Filtro de admisión con prioridad que reparte los hilos de Tomcat entre peticiones baratas y caras
+ * mediante un {@link AdmissionScheduler}.
+ *
+ * Clasificación:
+ * - {@code POST /legendme/login/google}: {@link RequestClass#LOGIN}.
+ * - Peticiones con cabecera {@code Authorization: Bearer} cuyo JWT tiene firma y expiración válidas
+ *   ({@link JwtAuthenticationFilter#verifyToken}, HMAC con caché): {@link RequestClass#AUTHENTICATED}.
+ * - Actuator y el resto de peticiones, incluidas las de Bearer inválido, no se planifican: las sondas y los
+ *   scrapes no se descartan, y un token basura no puede colarse en la cola prioritaria ni descartar logins.
+ *
+ * Las peticiones descartadas reciben 503 con Retry-After. Se ejecuta después del rate limiting (que descarta
+ * clientes abusivos sin ocupar cola) y antes del límite de concurrencia adaptativo del login.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 15)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final String LOGIN_PATH = "/legendme/login/google";
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final boolean enabled;
+    private final AdmissionScheduler scheduler;
+    private final ObjectMapper mapper;
+    private final LoginMetrics metrics;
+    private final JwtAuthenticationFilter jwtFilter;
+
+    public AdmissionControlFilter(
+            @Value("${app.admission.enabled:true}") boolean enabled,
+            @Value("${app.admission.max-concurrent:150}") int maxConcurrent,
+            @Value("${app.admission.login.max-concurrent:60}") int loginMaxConcurrent,
+            @Value("${app.admission.authenticated.max-queue:40}") int authenticatedMaxQueue,
+            @Value("${app.admission.authenticated.max-wait:2s}") Duration authenticatedMaxWait,
+            @Value("${app.admission.login.max-queue:10}") int loginMaxQueue,
+            @Value("${app.admission.login.max-wait:500ms}") Duration loginMaxWait,
+            ObjectMapper mapper,
+            LoginMetrics metrics,
+            JwtAuthenticationFilter jwtFilter) {
+        this.enabled = enabled;
+        this.scheduler = new AdmissionScheduler(maxConcurrent, loginMaxConcurrent,
+                authenticatedMaxQueue, authenticatedMaxWait.toNanos(),
+                loginMaxQueue, loginMaxWait.toNanos());
+        this.mapper = mapper;
+        this.metrics = metrics;
+        this.jwtFilter = jwtFilter;
+        metrics.gauge("login.admission.waiting.authenticated", "Peticiones autenticadas esperando admisión",
+                scheduler::getAuthenticatedWaiting);
+        metrics.gauge("login.admission.waiting.login", "Logins esperando admisión", scheduler::getLoginWaiting);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || path(request).startsWith(ACTUATOR_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long arrival = System.nanoTime();
+        RequestClass requestClass = classify(request);
+        if (requestClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Decision decision;
+        try {
+            decision = scheduler.admit(requestClass, arrival);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            decision = Decision.SHED_DEADLINE;
+        }
+
+        if (decision != Decision.ADMITTED) {
+            metrics.rejected(requestClass == RequestClass.LOGIN ? "shed_login" : "shed_authenticated");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            mapper.writeValue(response.getOutputStream(),
+                    new Errors(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servicio saturado, reintente más tarde"));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scheduler.release(requestClass);
+        }
+    }
+
+    private RequestClass classify(HttpServletRequest request) {
+        if ("POST".equals(request.getMethod()) && LOGIN_PATH.equals(path(request))) {
+            return RequestClass.LOGIN;
+        }
+        String auth = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (auth == null || !auth.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            jwtFilter.verifyToken(auth.substring(7));
+            return RequestClass.AUTHENTICATED;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -1,73 +1,109 @@
 package com.legendme.login.svc.adapters.out.security;
 
+import com.legendme.login.svc.adapters.out.security.idtoken.IdTokenProperties;
 import com.legendme.login.svc.application.port.out.GoogleTokenVerifierPort;
+import com.legendme.login.svc.application.port.out.IdTokenVerifierPort;
+import com.legendme.login.svc.application.port.out.IdTokenVerifierPort.VerifiedIdToken;
+import com.legendme.login.svc.infrastructure.cache.TieredCache;
+import com.legendme.login.svc.infrastructure.jfr.GoogleVerifyEvent;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.infrastructure.ratelimit.SubjectRateLimiter;
+import com.legendme.login.svc.shared.exceptions.AuthError;
 import com.legendme.login.svc.shared.exceptions.ErrorException;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
-import com.nimbusds.jose.proc.JWSVerificationKeySelector;
-import com.nimbusds.jose.proc.SecurityContext;
+import com.legendme.login.svc.shared.exceptions.RateLimitedException;
 import com.nimbusds.jwt.SignedJWT;
-import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
-import java.net.URL;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Clase responsable de verificar y validar tokens ID emitidos por Google.
  *
- * Utiliza la librería Nimbus JOSE + JWT para comprobar la firma del token
- * contra las claves públicas JWK de Google y realizar validaciones adicionales
- * sobre su contenido.
+ * La verificación (firma, issuer, audience y expiración) la hace el verificador multi-emisor
+ * ({@link IdTokenVerifierPort}, configurado en app.id-token.issuers.google); esta clase solo acepta
+ * los tokens cuyo emisor es Google.
  *
  * Flujo general:
- * 1. Descarga las claves públicas (JWK) desde la URL configurada de Google.
- * 2. Recibe un token ID (JWT) desde el cliente.
- * 3. Parsea y valida la firma del token utilizando el algoritmo RS256.
- * 4. Verifica los campos estándar del token:
- *    - Issuer (iss): debe ser accounts.google.com o <a href="https://accounts.google.com">...</a>.
- *    - Audience (aud): debe contener el clientId de la aplicación.
- *    - Expiration: debe estar vigente (no expirado).
- * 5. Si todas las validaciones son correctas, retorna un objeto VerifiedGoogleUser
+ * 1. Recibe un token ID (JWT) desde el cliente.
+ * 2. Lo verifica con el {@link IdTokenVerifierPort}, que comprueba la firma contra las claves JWK de Google,
+ *    el issuer (accounts.google.com o https://accounts.google.com), la audience (el clientId de la aplicación)
+ *    y la expiración.
+ * 3. Si el token no es de Google, lo rechaza.
+ * 4. Si todas las validaciones son correctas, retorna un objeto VerifiedGoogleUser
  *    con la información del usuario autenticado.
- * 6. Si ocurre un error o el token es inválido, lanza una ErrorException con
- *    el estado HTTP 401 (no autorizado).
+ * 5. Si ocurre un error o el token es inválido (issuer, audience, vigencia, firma), lanza G-LOG-04 sin traza de
+ *    la pila con el estado HTTP 401 (no autorizado); el código concreto del verificador solo se registra en el
+ *    evento JFR. El límite por sub (G-LOG-13, 429) se propaga tal cual.
  *
- * Parámetros del constructor:
- * - jwkUri: URL del endpoint de claves públicas de Google (JWK).
- * - clientId: identificador de cliente configurado en Google Cloud.
+ * Cada token verificado (o cacheado) consume un token del bucket de su sub ({@link SubjectRateLimiter}); el
+ * bucket solo se carga con subs de firma verificada.
  *
+ * Los tokens verificados se guardan en una {@link TieredCache} (por hash del token) hasta su expiración,
+ * de modo que un reintento con el mismo idToken no repite la verificación de firma. Las claves llevan como prefijo
+ * una huella de la configuración del emisor google (issuers y audiences): al cambiarla, las entradas verificadas
+ * con la configuración anterior dejan de encontrarse, también en L2.
  */
 @Slf4j
 @Component
 public class GoogleTokenVerifierNimbus implements GoogleTokenVerifierPort {
 
-    private final JWKSource<SecurityContext> jwkSource; // Fuente de claves JWK para la verificación de firmas.
-    private final String clientId; // ID del cliente configurado para la aplicación.
+    static final String PROVIDER = "google"; // Nombre del emisor en app.id-token.issuers.
+
+    private final IdTokenVerifierPort idTokenVerifier; // Verificador multi-emisor.
+    private final LoginMetrics metrics; // Métricas de latencia por etapa.
+    private final TieredCache<VerifiedGoogleUser> cache; // Tokens ya verificados, hasta su expiración.
+    private final SubjectRateLimiter subLimiter; // Rate limiting por sub verificado.
+    private volatile String keyScope; // Huella de la configuración de google, prefijo de las claves de la caché.
 
 
     public GoogleTokenVerifierNimbus(
-            @Value("${google.jwks-uri}") URL jwkUri,
-            @Value("${google.client-id}") String clientId) throws Exception {
-        this.jwkSource = JWKSourceBuilder
-                .create(jwkUri)
-                .retrying(true)
-                .build();
-        this.clientId = clientId;
+            IdTokenVerifierPort idTokenVerifier,
+            LoginMetrics metrics,
+            TieredCache<VerifiedGoogleUser> cache,
+            SubjectRateLimiter subLimiter,
+            IdTokenProperties properties) {
+        this.idTokenVerifier = idTokenVerifier;
+        this.metrics = metrics;
+        this.cache = cache;
+        this.subLimiter = subLimiter;
+        this.keyScope = keyScope(properties);
+    }
+
+    /**
+     * Descarta los tokens verificados con la configuración anterior, por ejemplo al restaurar un checkpoint CRaC:
+     * vacía L1 y cambia el prefijo de las claves, de modo que las entradas de L2 de otra configuración no se usan.
+     *
+     * @param properties La configuración de emisores vigente.
+     */
+    public void reload(IdTokenProperties properties) {
+        this.keyScope = keyScope(properties);
+        cache.invalidateLocal();
+    }
+
+    private static String keyScope(IdTokenProperties properties) {
+        IdTokenProperties.Issuer google = properties.issuers() != null ? properties.issuers().get(PROVIDER) : null;
+        if (google == null) {
+            return "none";
+        }
+        String config = sorted(google.issuers()) + "|" + sorted(google.audiences());
+        return TieredCache.hashKey(config).substring(0, 12);
+    }
+
+    private static String sorted(Set<String> values) {
+        return values == null ? "" : String.valueOf(new TreeSet<>(values));
     }
 
     /**
      * Verifica la validez y autenticidad de un token ID de Google.
      *
      * Pasos del proceso:
-     * 1. Parsea el token recibido (JWT).
-     * 2. Configura un procesador JWT que usa las claves JWK públicas de Google.
-     * 3. Valida la firma del token.
-     * 4. Comprueba el issuer, audience y la expiración.
-     * 5. Si el token es válido, construye un objeto VerifiedGoogleUser con los datos del usuario.
+     * 0. Si el token ya fue verificado y no ha expirado, devuelve el usuario cacheado.
+     * 1. Verifica el token con el verificador multi-emisor (firma, issuer, audience y expiración).
+     * 2. Comprueba que el emisor es Google.
+     * 3. Si el token es válido, construye un objeto VerifiedGoogleUser con los datos del usuario.
+     * 4. Consume un token del bucket del sub; si está vacío, rechaza con 429 (G-LOG-13).
      *
      * @param idTokenStr cadena del token JWT emitido por Google.
      * @return un objeto VerifiedGoogleUser con la información del usuario autenticado.
@@ -76,44 +112,67 @@ public class GoogleTokenVerifierNimbus implements GoogleTokenVerifierPort {
 
     @Override
     public VerifiedGoogleUser verify(String idTokenStr) {
+        long start = System.nanoTime();
+        var event = new GoogleVerifyEvent();
+        event.begin();
+        String outcome = "G-LOG-04";
         try {
-            log.info("Iniciando verification de token de Google");
-            var jwt = SignedJWT.parse(idTokenStr);
-
-            var proc = new DefaultJWTProcessor<SecurityContext>();
-            proc.setJWSKeySelector(new JWSVerificationKeySelector<>(
-                    JWSAlgorithm.RS256, jwkSource));
-
-            var claims = proc.process(jwt, null);
-
-            var iss = claims.getIssuer();
-
-            if (!"accounts.google.com".equals(iss) && !"https://accounts.google.com".equals(iss)) {
-                throw new ErrorException("Issuer invalido", "G-LOG-01", HttpStatus.BAD_REQUEST);
-            }
-
-            if (!claims.getAudience().contains(clientId)) {
-                throw new ErrorException("Audience invalido", "G-LOG-02", HttpStatus.BAD_REQUEST);
+            log.debug("Iniciando verification de token de Google");
+            String cacheKey = keyScope + ':' + TieredCache.hashKey(idTokenStr);
+            var cached = cache.getIfPresent(cacheKey);
+            if (cached != null) {
+                outcome = "CACHED";
+                subLimiter.acquire(cached.sub());
+                return cached;
             }
 
-            if (claims.getExpirationTime() == null || new java.util.Date().after(claims.getExpirationTime())) {
-                throw new ErrorException("Expiration invalido", "G-LOG-03", HttpStatus.BAD_REQUEST);
+            VerifiedIdToken token = idTokenVerifier.verify(idTokenStr);
+            if (!PROVIDER.equals(token.provider())) {
+                throw AuthError.INVALID_ISSUER.exception();
             }
 
-            log.info("Google token verificado exitosamente");
-            return new VerifiedGoogleUser(
-                    claims.getSubject(),
-                    claims.getStringClaim("email"),
-                    Boolean.TRUE.equals(claims.getBooleanClaim("email_verified")),
-                    claims.getStringClaim("name"),
-                    claims.getStringClaim("picture")
+            log.debug("Google token verificado exitosamente");
+            outcome = "OK";
+            var user = new VerifiedGoogleUser(
+                    token.sub(),
+                    token.email(),
+                    token.emailVerified(),
+                    token.name(),
+                    token.picture()
             );
-
+            cache.put(cacheKey, TieredCache.Entry.until(user, token.expiresAt()));
+            subLimiter.acquire(user.sub());
+            return user;
+
+        } catch (RateLimitedException e) {
+            outcome = e.errorCode();
+            throw e;
+        } catch (ErrorException e) {
+            outcome = e.errorCode();
+            throw AuthError.INVALID_TOKEN.exception();
         } catch (Exception e) {
-            throw new ErrorException("Token invalido", "G-LOG-04", HttpStatus.UNAUTHORIZED);
+            throw AuthError.INVALID_TOKEN.exception();
+        } finally {
+            metrics.recordVerify(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.kid = keyId(idTokenStr);
+                event.outcome = outcome;
+                event.commit();
+            }
         }
     }
 
+    /**
+     * kid de la cabecera del token, solo para el evento JFR; {@code null} si el token no se puede parsear.
+     */
+    private static String keyId(String idTokenStr) {
+        try {
+            return SignedJWT.parse(idTokenStr).getHeader().getKeyID();
+        } catch (Exception e) {
+            return null;
+        }
+    }
 }
 
 
@@ -1,5 +1,9 @@
 package com.legendme.login.svc.adapters.out.security;
 
+import com.legendme.login.svc.infrastructure.cache.TieredCache;
+import com.legendme.login.svc.infrastructure.jfr.JwtFilterEvent;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.logging.Pii;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -16,19 +20,41 @@ import java.util.List;
  * Filtro de autenticación JWT que se ejecuta una vez por solicitud.
  * Este filtro valida el token JWT presente en el encabezado de autorización
  * y establece la autenticación en el contexto de seguridad de Spring.
+ *
+ * Los tokens ya verificados se guardan en una caché local (por token, hasta su expiración)
+ * para no repetir el parseo y la verificación de firma en cada petición del mismo cliente.
  */
 @Component
 public class JwtAuthenticationFilter extends org.springframework.web.filter.OncePerRequestFilter {
-    private final Key key;
+    private volatile Key key;
+    private final LoginMetrics metrics;
+    private final TieredCache<AuthPrincipal> cache;
 
     /**
      * Constructor que inicializa la clave secreta utilizada para firmar y verificar los tokens JWT.
      *
      * @param secret La clave secreta configurada en las propiedades de la aplicación.
+     * @param metrics Métricas de latencia del login.
+     * @param cache Caché de tokens ya verificados.
      */
     public JwtAuthenticationFilter(
-            @Value("${app.jwt.secret}") String secret ) {
+            @Value("${app.jwt.secret}") String secret,
+            LoginMetrics metrics,
+            TieredCache<AuthPrincipal> cache) {
                 this.key = Keys.hmacShaKeyFor(secret.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                this.metrics = metrics;
+                this.cache = cache;
+    }
+
+    /**
+     * Sustituye la clave de verificación, por ejemplo al restaurar un checkpoint CRaC con secretos nuevos.
+     * Descarta los tokens cacheados, que se verificaron con la clave anterior.
+     *
+     * @param secret La nueva clave secreta.
+     */
+    public void rotateSecret(String secret) {
+        this.key = JwtIssuerImpl.hmacKey(secret);
+        cache.invalidateLocal();
     }
 
     /**
@@ -54,29 +80,57 @@ public class JwtAuthenticationFilter extends org.springframework.web.filter.Once
         var auth = request.getHeader("Authorization");
         if (auth != null && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
+            long start = System.nanoTime();
+            var event = new JwtFilterEvent();
+            event.begin();
+            String outcome = "INVALID";
             try {
-                Claims claims = Jwts.parser()
-                                .verifyWith((SecretKey) key)
-                                .build()
-                                .parseSignedClaims(token)
-                                .getPayload();
-
-                String userId = claims.getSubject();
-                String email = claims.get("email", String.class);
-                String name = claims.get("name", String.class);
+                var principal = verifyToken(token);
 
                 var authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
-                var principal = new AuthPrincipal(userId, email, name);
                 var authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 org.springframework.security.core.context.SecurityContextHolder.getContext().setAuthentication(authentication);
+                outcome = "OK";
 
-            } catch (Exception ignored) {}
+            } catch (Exception ignored) {
+            } finally {
+                metrics.recordFilter(start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.outcome = outcome;
+                    event.commit();
+                }
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verifica la firma y la expiración de un JWT propio y extrae los datos del usuario.
+     *
+     * @param token El token JWT compacto, sin el prefijo "Bearer ".
+     * @return Los datos del usuario autenticado.
+     * @throws io.jsonwebtoken.JwtException Si el token no es válido o ha expirado.
+     */
+    public AuthPrincipal verifyToken(String token) {
+        AuthPrincipal cached = cache.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = Jwts.parser()
+                        .verifyWith((SecretKey) key)
+                        .build()
+                        .parseSignedClaims(token)
+                        .getPayload();
+
+        var principal = new AuthPrincipal(claims.getSubject(), claims.get("email", String.class), claims.get("name", String.class));
+        cache.put(token, TieredCache.Entry.until(principal, claims.getExpiration().toInstant()));
+        return principal;
+    }
+
     /**
      * Clase interna que representa los detalles del usuario autenticado.
      *
@@ -84,7 +138,16 @@ public class JwtAuthenticationFilter extends org.springframework.web.filter.Once
      * @param email  El correo electrónico del usuario.
      * @param name   El nombre del usuario.
      */
-    public record AuthPrincipal(String userId, String email, String name) {}
+    public record AuthPrincipal(String userId, String email, String name) {
+
+        /**
+         * Representación apta para logs, con los datos personales enmascarados.
+         */
+        @Override
+        public String toString() {
+            return "AuthPrincipal[userId=" + userId + ", email=" + Pii.email(email) + ", name=" + Pii.redact(name) + "]";
+        }
+    }
 
 
 
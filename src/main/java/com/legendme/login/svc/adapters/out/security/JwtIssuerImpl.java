@@ -1,6 +1,9 @@
 package com.legendme.login.svc.adapters.out.security;
 
 import com.legendme.login.svc.application.port.out.JwtIssuerPort;
+import com.legendme.login.svc.domain.model.AuthTokens;
+import com.legendme.login.svc.infrastructure.jfr.JwtMintEvent;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
 import com.legendme.login.svc.shared.exceptions.ErrorException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -15,9 +18,10 @@ import java.util.UUID;
 @Component
 public class JwtIssuerImpl implements JwtIssuerPort {
     private final String issuer; // Emisor del token JWT.
-    private final java.security.Key key; // Clave utilizada para firmar los tokens.
+    private volatile java.security.Key key; // Clave utilizada para firmar los tokens.
     private final long accExp; // Tiempo de expiración del token de acceso en minutos.
     private final long refExp; // Tiempo de expiración del token de actualización en días.
+    private final LoginMetrics metrics; // Métricas de latencia por etapa.
 
     /**
      * Constructor que inicializa los valores necesarios para la emisión de tokens JWT.
@@ -26,14 +30,41 @@ public class JwtIssuerImpl implements JwtIssuerPort {
      * @param secret La clave secreta utilizada para firmar los tokens.
      * @param accExp Tiempo de expiración del token de acceso en minutos.
      * @param refExp Tiempo de expiración del token de actualización en días.
+     * @param metrics Métricas de latencia del login.
      * @throws IllegalStateException Si la clave secreta no está definida o es demasiado corta.
      */
     public JwtIssuerImpl(
         @Value("${app.jwt.issuer}") String issuer,
         @Value("${app.jwt.secret}") String secret,
         @Value("${app.jwt.access-exp-minutes}") long accExp,
-        @Value("${app.jwt.refresh-exp-days}") long refExp) {
+        @Value("${app.jwt.refresh-exp-days}") long refExp,
+        LoginMetrics metrics) {
 
+        this.issuer = issuer;
+        this.key = hmacKey(secret);
+        this.accExp = accExp;
+        this.refExp = refExp;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sustituye la clave de firma, por ejemplo al restaurar un checkpoint CRaC con secretos nuevos.
+     *
+     * @param secret La nueva clave secreta.
+     * @throws IllegalStateException Si la clave secreta no está definida o es demasiado corta.
+     */
+    public void rotateSecret(String secret) {
+        this.key = hmacKey(secret);
+    }
+
+    /**
+     * Construye la clave HMAC validando que el secreto tenga la longitud mínima exigida por HS256.
+     *
+     * @param secret La clave secreta.
+     * @return La clave HMAC.
+     * @throws IllegalStateException Si la clave secreta no está definida o es demasiado corta.
+     */
+    static java.security.Key hmacKey(String secret) {
         if (secret == null || secret.isBlank()) {
             throw new IllegalStateException("app.jwt.secret no está definido");
         }
@@ -42,11 +73,35 @@ public class JwtIssuerImpl implements JwtIssuerPort {
         if (bytes.length < 32) {
             throw new IllegalStateException("app.jwt.secret es demasiado corta; usa >= 32 bytes");
         }
+        return io.jsonwebtoken.security.Keys.hmacShaKeyFor(bytes);
+    }
 
-        this.issuer = issuer;
-        this.key = io.jsonwebtoken.security.Keys.hmacShaKeyFor(bytes);
-        this.accExp = accExp;
-        this.refExp = refExp;
+    /**
+     * Genera el par de tokens (acceso y actualización) registrando la latencia de la firma.
+     *
+     * @param userId El identificador único del usuario.
+     * @param email  El correo electrónico del usuario.
+     * @param name   El nombre del usuario.
+     * @return Un objeto {@link AuthTokens} con ambos tokens.
+     */
+    @Override
+    public AuthTokens pair(UUID userId, String email, String name) {
+        long start = System.nanoTime();
+        var event = new JwtMintEvent();
+        event.begin();
+        String outcome = "G-LOG-09";
+        try {
+            AuthTokens tokens = JwtIssuerPort.super.pair(userId, email, name);
+            outcome = "OK";
+            return tokens;
+        } finally {
+            metrics.recordMint(start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
     }
 
     /**
@@ -0,0 +1,98 @@
+package com.legendme.login.svc.adapters.out.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.infrastructure.concurrency.AdaptiveConcurrencyLimiter;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.dto.Errors;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que limita las peticiones en vuelo de {@code POST /legendme/login/google} con un
+ * {@link AdaptiveConcurrencyLimiter}.
+ *
+ * Las peticiones por encima del límite se rechazan inmediatamente con 503 en lugar de acumularse
+ * en hilos de Tomcat. Las peticiones admitidas que terminan en 2xx aportan su latencia al limitador; las que
+ * terminan en 5xx (por ejemplo G-LOG-07 cuando users-svc falla) o con excepción cuentan como sobrecarga, y las
+ * 4xx se liberan sin aportar muestra.
+ *
+ * Métricas: login.concurrency.limit, login.concurrency.in-flight y login.rejected{reason=concurrency_limit}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class LoginConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String LOGIN_PATH = "/legendme/login/google";
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper mapper;
+    private final LoginMetrics metrics;
+
+    public LoginConcurrencyLimitFilter(
+            @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${app.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${app.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${app.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${app.concurrency-limit.tolerance:1.2}") double tolerance,
+            @Value("${app.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${app.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.concurrency-limit.probe-interval:50}") int probeInterval,
+            ObjectMapper mapper,
+            LoginMetrics metrics) {
+        this.enabled = enabled;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance,
+                smoothing, backoffRatio, probeInterval);
+        this.mapper = mapper;
+        this.metrics = metrics;
+        metrics.gauge("login.concurrency.limit", "Límite adaptativo de logins en vuelo", limiter::getLimit);
+        metrics.gauge("login.concurrency.in-flight", "Logins en vuelo", limiter::getInFlight);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !(request.getContextPath() + LOGIN_PATH).equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            metrics.rejected("concurrency_limit");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            mapper.writeValue(response.getOutputStream(),
+                    new Errors(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servicio saturado, reintente más tarde"));
+            return;
+        }
+
+        long start = System.nanoTime();
+        int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            // Solo los 2xx aportan latencia y los 5xx cuentan como caída; los 4xx (token inválido, 429...) son
+            // rechazos rápidos que arrastrarían la latencia mínima muy por debajo de la de un login real.
+            if (status >= 500) {
+                limiter.release(System.nanoTime() - start, true);
+            } else if (status >= 200 && status < 300) {
+                limiter.release(System.nanoTime() - start, false);
+            } else {
+                limiter.release();
+            }
+        }
+    }
+}
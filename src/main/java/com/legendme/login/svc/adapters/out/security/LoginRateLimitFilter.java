@@ -0,0 +1,178 @@
+package com.legendme.login.svc.adapters.out.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.infrastructure.audit.LoginAuditLog;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.infrastructure.ratelimit.SubjectRateLimiter;
+import com.legendme.login.svc.infrastructure.ratelimit.TokenBucketTable;
+import com.legendme.login.svc.shared.dto.Errors;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filtro de rate limiting para {@code POST /legendme/login/google}.
+ *
+ * Se ejecuta antes de la cadena de Spring Security y del controlador, de modo que una petición
+ * rechazada no llega a verificar firmas RS256 ni a llamar a legendme-users-svc.
+ *
+ * Aplica un token bucket por IP del cliente ({@code request.getRemoteAddr()}, resuelta desde X-Forwarded-For
+ * del proxy de confianza) en una {@link TokenBucketTable} (memoria fija y actualizaciones por CAS), y rechaza
+ * los cuerpos de más de app.rate-limit.max-body-bytes.
+ *
+ * El límite por sub no se aplica aquí: el sub del idToken aún no está verificado y un token falso con el sub de
+ * otro usuario podría agotar su bucket. Lo aplica {@link SubjectRateLimiter} tras verificar la firma.
+ *
+ * Si se supera el límite responde 429 con la cabecera Retry-After (en segundos) y publica el intento en el
+ * registro de auditoría con el resultado RATE_LIMIT_IP.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private static final String LOGIN_PATH = "/legendme/login/google";
+
+    private final boolean enabled;
+    private final int maxBodyBytes;
+    private final TokenBucketTable ipBuckets;
+    private final ObjectMapper mapper;
+    private final LoginMetrics metrics;
+    private final LoginAuditLog audit;
+
+    public LoginRateLimitFilter(
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.slots:65536}") int slots,
+            @Value("${app.rate-limit.max-body-bytes:16384}") int maxBodyBytes,
+            @Value("${app.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${app.rate-limit.ip.refill-per-second:5}") double ipRefill,
+            ObjectMapper mapper,
+            LoginMetrics metrics,
+            LoginAuditLog audit) {
+        this.enabled = enabled;
+        this.maxBodyBytes = maxBodyBytes;
+        this.ipBuckets = new TokenBucketTable(slots, ipCapacity, ipRefill);
+        this.mapper = mapper;
+        this.metrics = metrics;
+        this.audit = audit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !(request.getContextPath() + LOGIN_PATH).equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        long retryAfter = ipBuckets.tryAcquire(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            metrics.rejected("rate_limit_ip");
+            audit.record(start, HttpStatus.TOO_MANY_REQUESTS.value(), "RATE_LIMIT_IP", null, request);
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Demasiadas solicitudes");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, 0, "Solicitud demasiado grande");
+            return;
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterMillis, String message) throws IOException {
+        response.setStatus(status.value());
+        if (retryAfterMillis > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), new Errors(status.value(), message));
+    }
+
+    /**
+     * Envoltorio que vuelve a exponer el cuerpo ya leído por el filtro.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // El cuerpo ya está en memoria: todo está disponible de inmediato.
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.legendme.login.svc.adapters.out.security;
 
+import com.legendme.login.svc.adapters.out.http.PeerUserDirectory;
+import com.legendme.login.svc.infrastructure.peer.PeerMembership;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -20,16 +23,22 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtFilter;
+    private final PeerMembership peers;
 
     /**
      * Configura la cadena de filtros de seguridad para las solicitudes HTTP.
      *
+     * Los endpoints de actuator se sirven en el puerto de gestión (management.server.port), que no se publica
+     * fuera del clúster; en el puerto público solo quedan las sondas de health (/livez y /readyz).
+     *
      * @param http El objeto {@link HttpSecurity} utilizado para personalizar la seguridad web.
+     * @param managementPort Puerto de gestión.
      * @return La cadena de filtros de seguridad configurada.
      * @throws Exception Si ocurre un error durante la configuración.
      */
     @Bean
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain filterChain(HttpSecurity http,
+                                    @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults())
@@ -37,6 +46,13 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.POST,"legendme/login/google").permitAll()
                         .requestMatchers("/error").permitAll()
+                        .requestMatchers("/actuator/health/**", "/livez", "/readyz").permitAll()
+                        .requestMatchers(req -> req.getLocalPort() == managementPort
+                                && req.getRequestURI().startsWith("/actuator/")).permitAll()
+                        .requestMatchers("/actuator/**").denyAll()
+                        .requestMatchers(req -> req.getLocalPort() == peers.port()
+                                && HttpMethod.POST.matches(req.getMethod())
+                                && PeerUserDirectory.PATH.equals(req.getRequestURI())).permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex
@@ -45,8 +61,4 @@ public class SecurityConfig {
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
-
-
-
-
 }
@@ -0,0 +1,46 @@
+package com.legendme.login.svc.adapters.out.security.idtoken;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuración de los emisores de tokens de identificación (app.id-token).
+ *
+ * @param clockSkew   Tolerancia de reloj al comprobar exp y nbf.
+ * @param jwksTimeout Timeout de conexión y lectura al descargar un JWKS.
+ * @param issuers     Emisores por nombre de proveedor (google, apple, microsoft...).
+ */
+@ConfigurationProperties("app.id-token")
+public record IdTokenProperties(
+        @DefaultValue("60s") Duration clockSkew,
+        @DefaultValue("2s") Duration jwksTimeout,
+        Map<String, Issuer> issuers) {
+
+    /**
+     * Un emisor.
+     *
+     * @param enabled             Si los tokens de este emisor se aceptan.
+     * @param issuers             Valores de iss que identifican al emisor (Google usa dos).
+     * @param jwksUri             URL del JWKS con las claves públicas del emisor.
+     * @param audiences           Valores de aud aceptados (client ids de la aplicación).
+     * @param algorithms          Algoritmos de firma aceptados.
+     * @param refreshInterval     Cada cuánto se vuelve a descargar el JWKS (en segundo plano).
+     * @param minRefreshInterval  Intervalo mínimo entre descargas provocadas por un kid desconocido.
+     * @param assumeEmailVerified Si el correo se da por verificado cuando el token no trae email_verified.
+     */
+    public record Issuer(
+            @DefaultValue("true") boolean enabled,
+            Set<String> issuers,
+            URL jwksUri,
+            Set<String> audiences,
+            @DefaultValue("RS256") Set<String> algorithms,
+            @DefaultValue("1h") Duration refreshInterval,
+            @DefaultValue("30s") Duration minRefreshInterval,
+            @DefaultValue("false") boolean assumeEmailVerified) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.legendme.login.svc.adapters.out.security.idtoken;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice de claves públicas compartido por todos los emisores, con clave (emisor, kid).
+ *
+ * Cada entrada guarda el {@link JWSVerifier} ya construido para la clave y los algoritmos que puede verificar
+ * (los del emisor que admite el tipo de clave, restringidos al alg de la JWK si lo declara), de modo que verificar
+ * un token no crea objetos criptográficos.
+ *
+ * Política de refresco, por emisor:
+ * - La primera búsqueda descarga el JWKS de forma síncrona.
+ * - Pasado refreshInterval, una búsqueda que encuentra su clave lanza una descarga en segundo plano y sigue con
+ *   la clave actual.
+ * - Un kid desconocido provoca una descarga síncrona (rotación de claves), como mucho una cada minRefreshInterval
+ *   para que tokens con kids inventados no conviertan al servicio en un cliente del JWKS.
+ * Las claves que desaparecen del JWKS se eliminan del índice. Si una descarga falla se conservan las claves
+ * anteriores y se reintenta pasado minRefreshInterval.
+ */
+@Slf4j
+class IssuerKeyIndex {
+    private final ConcurrentHashMap<KeyId, KeyEntry> keys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RefreshState> states = new ConcurrentHashMap<>();
+    private final JwksFetcher fetcher;
+    private final Executor refresher;
+
+    IssuerKeyIndex(JwksFetcher fetcher, Executor refresher) {
+        this.fetcher = fetcher;
+        this.refresher = refresher;
+    }
+
+    /**
+     * @param issuer    El emisor del token.
+     * @param kid       El kid de la cabecera, o {@code null}.
+     * @param algorithm El alg de la cabecera.
+     * @return El verificador de la clave, o {@code null} si no hay una clave con ese kid que admita el algoritmo.
+     */
+    JWSVerifier verifier(IssuerPolicy issuer, String kid, JWSAlgorithm algorithm) {
+        KeyId id = new KeyId(issuer.name(), kid == null ? "" : kid);
+        RefreshState state = state(issuer);
+        KeyEntry entry = keys.get(id);
+        if (entry == null) {
+            entry = refreshForMissingKey(issuer, state, id);
+        } else if (System.currentTimeMillis() >= state.nextRefreshAt) {
+            refreshInBackground(issuer, state);
+        }
+        return entry != null && entry.algorithms().contains(algorithm) ? entry.verifier() : null;
+    }
+
+    /**
+     * Descarga el JWKS del emisor de forma síncrona.
+     *
+     * @param issuer El emisor.
+     * @return El número de claves del emisor en el índice, o -1 si la descarga falló.
+     */
+    int refresh(IssuerPolicy issuer) {
+        RefreshState state = state(issuer);
+        state.lock.lock();
+        try {
+            return load(issuer, state) ? state.current.size() : -1;
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta todas las claves y el estado de refresco, por ejemplo al cambiar la configuración de los emisores.
+     */
+    void clear() {
+        states.clear();
+        keys.clear();
+    }
+
+    /**
+     * @return Número de claves en el índice, de todos los emisores.
+     */
+    int size() {
+        return keys.size();
+    }
+
+    private RefreshState state(IssuerPolicy issuer) {
+        return states.computeIfAbsent(issuer.name(), n -> new RefreshState());
+    }
+
+    private KeyEntry refreshForMissingKey(IssuerPolicy issuer, RefreshState state, KeyId id) {
+        state.lock.lock();
+        try {
+            KeyEntry entry = keys.get(id);
+            if (entry != null) {
+                return entry;
+            }
+            if (System.currentTimeMillis() - state.lastFetchAt < issuer.minRefreshMillis()) {
+                return null;
+            }
+            load(issuer, state);
+            return keys.get(id);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    private void refreshInBackground(IssuerPolicy issuer, RefreshState state) {
+        if (!state.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    refresh(issuer);
+                } finally {
+                    state.refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            state.refreshing.set(false);
+            log.warn("No se pudo programar el refresco del JWKS de {}: {}", issuer.name(), e.toString());
+        }
+    }
+
+    /**
+     * Descarga el JWKS y sustituye las claves del emisor. Se invoca con el lock del emisor adquirido.
+     */
+    private boolean load(IssuerPolicy issuer, RefreshState state) {
+        long now = System.currentTimeMillis();
+        state.lastFetchAt = now;
+        try {
+            Map<KeyId, KeyEntry> fresh = new HashMap<>();
+            for (JWK jwk : fetcher.fetch(issuer.jwksUri()).getKeys()) {
+                KeyEntry entry = toEntry(issuer, jwk);
+                if (entry != null) {
+                    fresh.put(new KeyId(issuer.name(), jwk.getKeyID() == null ? "" : jwk.getKeyID()), entry);
+                }
+            }
+            keys.putAll(fresh);
+            for (KeyId old : state.current) {
+                if (!fresh.containsKey(old)) {
+                    keys.remove(old);
+                }
+            }
+            state.current = fresh.keySet();
+            state.nextRefreshAt = now + issuer.refreshMillis();
+            log.debug("JWKS de {} actualizado: {} claves", issuer.name(), fresh.size());
+            return true;
+        } catch (Exception e) {
+            state.nextRefreshAt = now + issuer.minRefreshMillis();
+            log.warn("No se pudo descargar el JWKS de {}: {}", issuer.name(), e.toString());
+            return false;
+        }
+    }
+
+    private static KeyEntry toEntry(IssuerPolicy issuer, JWK jwk) throws JOSEException {
+        if (jwk.getKeyUse() != null && !KeyUse.SIGNATURE.equals(jwk.getKeyUse())) {
+            return null;
+        }
+        JWSVerifier verifier;
+        if (jwk instanceof RSAKey rsa) {
+            verifier = new RSASSAVerifier(rsa);
+        } else if (jwk instanceof ECKey ec) {
+            verifier = new ECDSAVerifier(ec);
+        } else {
+            return null;
+        }
+        Set<JWSAlgorithm> algorithms = new HashSet<>(issuer.algorithms());
+        algorithms.retainAll(verifier.supportedJWSAlgorithms());
+        if (jwk.getAlgorithm() != null) {
+            algorithms.retainAll(Set.of(JWSAlgorithm.parse(jwk.getAlgorithm().getName())));
+        }
+        return algorithms.isEmpty() ? null : new KeyEntry(verifier, Set.copyOf(algorithms));
+    }
+
+    private record KeyId(String issuer, String kid) {
+    }
+
+    private record KeyEntry(JWSVerifier verifier, Set<JWSAlgorithm> algorithms) {
+    }
+
+    private static final class RefreshState {
+        final ReentrantLock lock = new ReentrantLock();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long lastFetchAt;
+        volatile long nextRefreshAt;
+        volatile Set<KeyId> current = Set.of();
+    }
+}
@@ -0,0 +1,48 @@
+package com.legendme.login.svc.adapters.out.security.idtoken;
+
+import com.nimbusds.jose.JWSAlgorithm;
+
+import java.net.URL;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reglas de un emisor ya resueltas a partir de {@link IdTokenProperties.Issuer}: algoritmos como
+ * {@link JWSAlgorithm} y audiences en un conjunto, para que la verificación solo haga búsquedas.
+ *
+ * @param name                Nombre del proveedor.
+ * @param jwksUri             URL del JWKS.
+ * @param algorithms          Algoritmos aceptados.
+ * @param audiences           Audiences aceptadas.
+ * @param refreshMillis       Intervalo de refresco del JWKS.
+ * @param minRefreshMillis    Intervalo mínimo entre descargas por kid desconocido.
+ * @param assumeEmailVerified Si el correo se da por verificado cuando falta email_verified.
+ */
+record IssuerPolicy(String name, URL jwksUri, Set<JWSAlgorithm> algorithms, Set<String> audiences,
+                    long refreshMillis, long minRefreshMillis, boolean assumeEmailVerified) {
+
+    static IssuerPolicy from(String name, IdTokenProperties.Issuer issuer) {
+        if (issuer.jwksUri() == null) {
+            throw new IllegalStateException("app.id-token.issuers." + name + ".jwks-uri es obligatorio");
+        }
+        Set<JWSAlgorithm> algorithms = new HashSet<>();
+        for (String algorithm : issuer.algorithms()) {
+            JWSAlgorithm parsed = JWSAlgorithm.parse(algorithm.trim());
+            if (!JWSAlgorithm.Family.RSA.contains(parsed) && !JWSAlgorithm.Family.EC.contains(parsed)) {
+                throw new IllegalStateException("Algoritmo no soportado en app.id-token.issuers." + name + ": " + algorithm);
+            }
+            algorithms.add(parsed);
+        }
+        Set<String> audiences = new HashSet<>();
+        if (issuer.audiences() != null) {
+            issuer.audiences().stream().map(String::trim).filter(a -> !a.isEmpty()).forEach(audiences::add);
+        }
+        if (audiences.isEmpty()) {
+            // Sin audience no se podría comprobar el aud: mejor no arrancar que rechazar cada login del emisor.
+            throw new IllegalStateException("app.id-token.issuers." + name + ".audiences es obligatorio");
+        }
+        return new IssuerPolicy(name, issuer.jwksUri(), Set.copyOf(algorithms), Set.copyOf(audiences),
+                issuer.refreshInterval().toMillis(), issuer.minRefreshInterval().toMillis(),
+                issuer.assumeEmailVerified());
+    }
+}
@@ -0,0 +1,30 @@
+package com.legendme.login.svc.adapters.out.security.idtoken;
+
+import com.nimbusds.jose.jwk.JWKSet;
+
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Descarga el JWKS de un emisor. Los tests lo sustituyen por claves generadas localmente.
+ */
+@FunctionalInterface
+public interface JwksFetcher {
+    int SIZE_LIMIT = 512 * 1024;
+
+    /**
+     * @param jwksUri URL del JWKS.
+     * @return El conjunto de claves publicado.
+     * @throws Exception Si no se puede descargar o interpretar.
+     */
+    JWKSet fetch(URL jwksUri) throws Exception;
+
+    /**
+     * @param timeout Timeout de conexión y de lectura.
+     * @return Un fetcher HTTP con el timeout indicado.
+     */
+    static JwksFetcher http(Duration timeout) {
+        int millis = (int) timeout.toMillis();
+        return jwksUri -> JWKSet.load(jwksUri, millis, millis, SIZE_LIMIT);
+    }
+}
@@ -0,0 +1,211 @@
+package com.legendme.login.svc.adapters.out.security.idtoken;
+
+import com.legendme.login.svc.application.port.out.IdTokenVerifierPort;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.exceptions.AuthError;
+import com.legendme.login.svc.shared.exceptions.AuthFailureException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Verificador de tokens de identificación para varios emisores (Google, Apple, Microsoft...) con una única
+ * pila de verificación.
+ *
+ * Flujo:
+ * 1. Parsea el JWT y lee su iss sin verificar; el iss selecciona el emisor ({@link IssuerPolicy}). Un iss no
+ *    configurado se rechaza antes de tocar ninguna clave.
+ * 2. Comprueba que el alg de la cabecera es uno de los permitidos para el emisor.
+ * 3. Obtiene el verificador de la clave (emisor, kid) del {@link IssuerKeyIndex} compartido y valida la firma.
+ * 4. Comprueba que alguna aud está en el conjunto de audiences del emisor, y exp/nbf con app.id-token.clock-skew.
+ *
+ * Errores: iss desconocido G-LOG-01, audience G-LOG-02, vigencia G-LOG-03, formato/algoritmo/firma G-LOG-04.
+ *
+ * Los emisores se configuran en app.id-token.issuers ({@link IdTokenProperties}); los deshabilitados no se cargan.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(IdTokenProperties.class)
+public class MultiIssuerIdTokenVerifier implements IdTokenVerifierPort, AutoCloseable {
+    private final IssuerKeyIndex keys;
+    private final ExecutorService refresher;
+    private volatile Routing routing;
+
+    @Autowired
+    public MultiIssuerIdTokenVerifier(IdTokenProperties properties, LoginMetrics metrics) {
+        this(properties, JwksFetcher.http(properties.jwksTimeout()), metrics);
+    }
+
+    /**
+     * @param properties Configuración de los emisores.
+     * @param fetcher    Origen de los JWKS.
+     * @param metrics    Métricas del servicio.
+     */
+    public MultiIssuerIdTokenVerifier(IdTokenProperties properties, JwksFetcher fetcher, LoginMetrics metrics) {
+        this.refresher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "jwks-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        this.keys = new IssuerKeyIndex(fetcher, refresher);
+        configure(properties);
+        metrics.gauge("login.idtoken.keys", "Claves públicas de emisores de idToken en memoria", keys::size);
+    }
+
+    /**
+     * Sustituye la configuración de los emisores y descarta todas las claves, que se volverán a descargar
+     * con el primer token de cada emisor. Se usa, por ejemplo, al restaurar un checkpoint CRaC.
+     *
+     * @param properties La nueva configuración.
+     */
+    public void configure(IdTokenProperties properties) {
+        Map<String, IssuerPolicy> byIssuer = new HashMap<>();
+        Map<String, IdTokenProperties.Issuer> issuers = properties.issuers() == null ? Map.of() : properties.issuers();
+        issuers.forEach((name, issuer) -> {
+            if (!issuer.enabled()) {
+                return;
+            }
+            IssuerPolicy policy = IssuerPolicy.from(name, issuer);
+            for (String iss : issuer.issuers()) {
+                IssuerPolicy previous = byIssuer.put(iss.trim(), policy);
+                if (previous != null) {
+                    throw new IllegalStateException("El issuer " + iss + " está configurado en "
+                            + previous.name() + " y en " + name);
+                }
+            }
+        });
+        this.routing = new Routing(Map.copyOf(byIssuer), properties.clockSkew().toMillis());
+        keys.clear();
+        log.info("Emisores de idToken habilitados: {}",
+                byIssuer.values().stream().map(IssuerPolicy::name).distinct().sorted().toList());
+    }
+
+    /**
+     * Descarga por adelantado el JWKS de todos los emisores habilitados para que el primer login no pague
+     * esa latencia.
+     *
+     * @return El número de claves disponibles.
+     */
+    public int prefetchKeys() {
+        int total = 0;
+        for (IssuerPolicy issuer : Set.copyOf(routing.byIssuer().values())) {
+            total += Math.max(0, keys.refresh(issuer));
+        }
+        return total;
+    }
+
+    @Override
+    public VerifiedIdToken verify(String idToken) {
+        SignedJWT jwt;
+        JWTClaimsSet claims;
+        try {
+            jwt = SignedJWT.parse(idToken);
+            claims = jwt.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw invalidToken();
+        }
+
+        Routing current = routing;
+        String iss = claims.getIssuer();
+        IssuerPolicy issuer = iss == null ? null : current.byIssuer().get(iss);
+        if (issuer == null) {
+            throw AuthError.INVALID_ISSUER.exception();
+        }
+
+        JWSHeader header = jwt.getHeader();
+        if (!issuer.algorithms().contains(header.getAlgorithm())) {
+            throw invalidToken();
+        }
+        JWSVerifier verifier = keys.verifier(issuer, header.getKeyID(), header.getAlgorithm());
+        if (verifier == null || !verifySignature(jwt, verifier)) {
+            throw invalidToken();
+        }
+
+        if (!hasAudience(claims.getAudience(), issuer.audiences())) {
+            throw AuthError.INVALID_AUDIENCE.exception();
+        }
+
+        long now = System.currentTimeMillis();
+        Date exp = claims.getExpirationTime();
+        Date nbf = claims.getNotBeforeTime();
+        if (exp == null || exp.getTime() + current.clockSkewMillis() < now
+                || nbf != null && nbf.getTime() - current.clockSkewMillis() > now) {
+            throw AuthError.INVALID_EXPIRATION.exception();
+        }
+
+        String email = stringClaim(claims, "email");
+        return new VerifiedIdToken(
+                issuer.name(),
+                iss,
+                claims.getSubject(),
+                email,
+                emailVerified(claims, email, issuer),
+                stringClaim(claims, "name"),
+                stringClaim(claims, "picture"),
+                exp.toInstant());
+    }
+
+    private static boolean verifySignature(SignedJWT jwt, JWSVerifier verifier) {
+        try {
+            return jwt.verify(verifier);
+        } catch (JOSEException e) {
+            return false;
+        }
+    }
+
+    private static boolean hasAudience(List<String> audience, Set<String> accepted) {
+        for (String aud : audience) {
+            if (accepted.contains(aud)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * email_verified llega como booleano (Google) o como cadena "true"/"false" (Apple); algunos emisores
+     * (Microsoft) no lo incluyen y se aplica assumeEmailVerified.
+     */
+    private static boolean emailVerified(JWTClaimsSet claims, String email, IssuerPolicy issuer) {
+        Object value = claims.getClaim("email_verified");
+        if (value instanceof Boolean verified) {
+            return verified;
+        }
+        if (value instanceof String verified) {
+            return Boolean.parseBoolean(verified);
+        }
+        return value == null && email != null && issuer.assumeEmailVerified();
+    }
+
+    private static String stringClaim(JWTClaimsSet claims, String name) {
+        Object value = claims.getClaim(name);
+        return value instanceof String s ? s : null;
+    }
+
+    private static AuthFailureException invalidToken() {
+        return AuthError.INVALID_TOKEN.exception();
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private record Routing(Map<String, IssuerPolicy> byIssuer, long clockSkewMillis) {
+    }
+}
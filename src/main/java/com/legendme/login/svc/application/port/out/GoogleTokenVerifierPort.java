@@ -1,5 +1,7 @@
 package com.legendme.login.svc.application.port.out;
 
+import com.legendme.login.svc.shared.logging.Pii;
+
 /**
  * Puerto que define la verificación de tokens de Google.
  * Este puerto se utiliza para validar un token de identificación proporcionado por Google
@@ -15,7 +17,18 @@ public interface GoogleTokenVerifierPort {
      * @param name El nombre completo del usuario.
      * @param picture La URL de la imagen de perfil del usuario.
      */
-    record VerifiedGoogleUser(String sub, String email, boolean emailVerified, String name, String picture){}
+    record VerifiedGoogleUser(String sub, String email, boolean emailVerified, String name, String picture){
+
+        /**
+         * Representación apta para logs, con los datos personales enmascarados.
+         */
+        @Override
+        public String toString() {
+            return "VerifiedGoogleUser[sub=" + Pii.redact(sub) + ", email=" + Pii.email(email)
+                    + ", emailVerified=" + emailVerified + ", name=" + Pii.redact(name)
+                    + ", picture=" + Pii.redact(picture) + "]";
+        }
+    }
 
     /**
      * Verifica un token de identificación de Google y devuelve los datos del usuario autenticado.
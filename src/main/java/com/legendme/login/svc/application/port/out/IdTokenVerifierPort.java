@@ -0,0 +1,48 @@
+package com.legendme.login.svc.application.port.out;
+
+import com.legendme.login.svc.shared.logging.Pii;
+
+import java.time.Instant;
+
+/**
+ * Puerto que define la verificación de tokens de identificación (OpenID Connect) de cualquier proveedor
+ * configurado: Google, Apple, Microsoft...
+ *
+ * El proveedor se determina a partir del issuer (iss) del token; el llamante decide qué proveedores acepta.
+ */
+public interface IdTokenVerifierPort {
+    /**
+     * Identidad verificada tras validar firma, issuer, audience y vigencia del token.
+     *
+     * @param provider      Nombre del proveedor en la configuración (google, apple, microsoft...).
+     * @param issuer        El issuer (iss) del token.
+     * @param sub           El identificador del usuario en el proveedor.
+     * @param email         El correo electrónico del usuario, si el proveedor lo incluye.
+     * @param emailVerified Indica si el proveedor garantiza el correo electrónico.
+     * @param name          El nombre completo del usuario, si el proveedor lo incluye.
+     * @param picture       La URL de la imagen de perfil, si el proveedor la incluye.
+     * @param expiresAt     Instante de expiración del token.
+     */
+    record VerifiedIdToken(String provider, String issuer, String sub, String email, boolean emailVerified,
+                           String name, String picture, Instant expiresAt) {
+
+        /**
+         * Representación apta para logs, con los datos personales enmascarados.
+         */
+        @Override
+        public String toString() {
+            return "VerifiedIdToken[provider=" + provider + ", issuer=" + issuer + ", sub=" + Pii.redact(sub)
+                    + ", email=" + Pii.email(email) + ", emailVerified=" + emailVerified
+                    + ", name=" + Pii.redact(name) + ", picture=" + Pii.redact(picture)
+                    + ", expiresAt=" + expiresAt + "]";
+        }
+    }
+
+    /**
+     * Verifica un token de identificación y devuelve la identidad que contiene.
+     *
+     * @param idToken El token de identificación (JWT firmado).
+     * @return La identidad verificada.
+     */
+    VerifiedIdToken verify(String idToken);
+}
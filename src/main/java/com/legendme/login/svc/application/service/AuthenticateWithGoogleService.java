@@ -8,10 +8,9 @@ import com.legendme.login.svc.application.port.out.GoogleTokenVerifierPort.Verif
 import com.legendme.login.svc.application.port.out.JwtIssuerPort;
 import com.legendme.login.svc.application.port.out.UserDirectoryPort;
 import com.legendme.login.svc.shared.dto.GoogleUserPayload;
-import com.legendme.login.svc.shared.exceptions.ErrorException;
+import com.legendme.login.svc.shared.exceptions.AuthError;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 /**
@@ -37,9 +36,9 @@ public class AuthenticateWithGoogleService implements AuthenticateWithGoogle {
      */
     @Override
     public Result authenticate(String idToken) {
-        log.info("Iniciando autenticación con Google, capa de servicio");
+        log.debug("Iniciando autenticación con Google, capa de servicio");
         if (idToken == null || idToken.isEmpty()) {
-            throw new ErrorException("Token de Google no proporcionado", "G-LOG-05", HttpStatus.BAD_REQUEST);
+            throw AuthError.MISSING_TOKEN.exception();
         }
 
         final VerifiedGoogleUser g;
@@ -50,8 +49,7 @@ public class AuthenticateWithGoogleService implements AuthenticateWithGoogle {
         g = googleVerifier.verify(idToken);
 
         if (Boolean.FALSE.equals(g.emailVerified())) {
-            throw new ErrorException(String.format("El email %s, no esta verificado por google", g.email())
-                    , "G-LOG-06", HttpStatus.UNAUTHORIZED);
+            throw AuthError.EMAIL_NOT_VERIFIED.exception();
         }
 
         user = userDir.upsertGoogleUser(new GoogleUserPayload(
@@ -61,6 +59,6 @@ public class AuthenticateWithGoogleService implements AuthenticateWithGoogle {
         tokens = jwt.pair(user.id(), user.email(), user.name());
 
 
-        return new Result(user.id(), user.email(), user.name(), tokens);
+        return new Result(user.id(), g.sub(), user.email(), user.name(), tokens);
     }
 }
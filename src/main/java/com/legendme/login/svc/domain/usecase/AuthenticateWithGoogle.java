@@ -11,11 +11,12 @@ public interface AuthenticateWithGoogle {
      * Representa el resultado de la autenticación con Google.
      *
      * @param userId El identificador único del usuario autenticado.
+     * @param sub El identificador del usuario en Google.
      * @param email El correo electrónico del usuario autenticado.
      * @param name El nombre del usuario autenticado.
      * @param tokens Los tokens de autenticación asociados al usuario.
      */
-    record Result(java.util.UUID userId, String email, String name, AuthTokens tokens) {}
+    record Result(java.util.UUID userId, String sub, String email, String name, AuthTokens tokens) {}
 
     /**
      * Autentica a un usuario utilizando un token de identificación de Google.
@@ -0,0 +1,70 @@
+package com.legendme.login.svc.infrastructure.audit;
+
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuración del registro de auditoría de logins ({@link LoginAuditLog}).
+ *
+ * El sink se elige con app.audit.sink:
+ * - file (por defecto): {@link RollingGzipFileSink} en app.audit.file.dir.
+ * - http: {@link HttpAuditSink} hacia app.audit.http.url, con el pool de conexiones salientes compartido y su
+ *   propio timeout.
+ * Un bean {@link AuditSink} definido por la aplicación tiene prioridad sobre ambos.
+ *
+ * Con app.audit.enabled=false no se crea el buffer ni el hilo consumidor.
+ */
+@Configuration
+public class AuditConfig {
+
+    @Bean(destroyMethod = "close")
+    public LoginAuditLog loginAuditLog(
+            @Value("${app.audit.enabled:true}") boolean enabled,
+            @Value("${app.audit.capacity:8192}") int capacity,
+            @Value("${app.audit.batch-size:512}") int batchSize,
+            @Value("${app.audit.idle-wait:100ms}") Duration idleWait,
+            @Value("${app.audit.sink:file}") String sinkType,
+            @Value("${app.audit.file.dir:audit}") Path fileDir,
+            @Value("${app.audit.file.max-size:64MB}") DataSize fileMaxSize,
+            @Value("${app.audit.file.max-age:1h}") Duration fileMaxAge,
+            @Value("${app.audit.file.max-files:48}") int fileMaxFiles,
+            @Value("${app.audit.http.url:}") String httpUrl,
+            @Value("${app.audit.http.timeout:2s}") Duration httpTimeout,
+            @Value("${app.audit.http.gzip:true}") boolean httpGzip,
+            ObjectProvider<AuditSink> customSink,
+            RestClient.Builder restClientBuilder,
+            ReactorResourceFactory resourceFactory,
+            LoginMetrics metrics) throws IOException {
+        if (!enabled) {
+            return LoginAuditLog.disabled();
+        }
+        AuditSink sink = customSink.getIfAvailable();
+        if (sink == null) {
+            sink = switch (sinkType) {
+                case "file" -> new RollingGzipFileSink(fileDir, fileMaxSize.toBytes(), fileMaxAge, fileMaxFiles);
+                case "http" -> {
+                    if (httpUrl.isBlank()) {
+                        throw new IllegalStateException("app.audit.http.url es obligatorio con app.audit.sink=http");
+                    }
+                    var requestFactory = new ReactorClientHttpRequestFactory(resourceFactory,
+                            client -> client.responseTimeout(httpTimeout));
+                    yield new HttpAuditSink(restClientBuilder.clone().requestFactory(requestFactory).build(),
+                            httpUrl, httpGzip);
+                }
+                default -> throw new IllegalStateException("app.audit.sink debe ser file o http");
+            };
+        }
+        return new LoginAuditLog(sink, capacity, batchSize, idleWait, metrics);
+    }
+}
@@ -0,0 +1,130 @@
+package com.legendme.login.svc.infrastructure.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Buffer circular acotado de eventos de auditoría: varios productores, un único consumidor, sin locks.
+ *
+ * Las ranuras ({@link Slot}) se crean al construir el buffer y se reutilizan; publicar un evento solo copia sus
+ * campos en la ranura. Cada ranura lleva un número de secuencia que indica si está libre para la posición que
+ * la reclama o ya contiene un evento listo para el consumidor:
+ * - Un productor lee la cola, comprueba que la ranura está libre para esa posición y la reclama con un CAS sobre
+ *   la cola; después escribe los campos y publica la ranura (secuencia = posición + 1).
+ * - El consumidor lee la ranura de la cabeza si su secuencia es posición + 1 y la libera para la siguiente vuelta
+ *   (secuencia = posición + capacidad).
+ *
+ * Si el buffer está lleno, {@link #offer} devuelve {@code false} en lugar de esperar: el llamante cuenta el evento
+ * como descartado y la petición sigue sin pagar el coste del consumidor.
+ */
+final class AuditRingBuffer {
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // solo lo escribe el consumidor
+
+    /**
+     * @param capacity Número de ranuras; se redondea a la siguiente potencia de dos.
+     */
+    AuditRingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publica un evento.
+     *
+     * @return {@code false} si el buffer está lleno y el evento se descarta.
+     */
+    boolean offer(long timestampMillis, long latencyNanos, int status, String result,
+                  String sub, String clientIp, String userAgent) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long diff = sequences.getAcquire(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Slot slot = slots[index];
+                    slot.timestampMillis = timestampMillis;
+                    slot.latencyNanos = latencyNanos;
+                    slot.status = status;
+                    slot.result = result;
+                    slot.sub = sub;
+                    slot.clientIp = clientIp;
+                    slot.userAgent = userAgent;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Entrega al consumidor los eventos listos, en orden, y libera sus ranuras. Solo puede invocarlo un hilo.
+     *
+     * @param handler Receptor de cada evento; no debe conservar la ranura tras volver.
+     * @param max     Número máximo de eventos a entregar.
+     * @return Número de eventos entregados.
+     */
+    int drain(Consumer<Slot> handler, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            Slot slot = slots[index];
+            handler.accept(slot);
+            slot.result = null;
+            slot.sub = null;
+            slot.clientIp = null;
+            slot.userAgent = null;
+            sequences.setRelease(index, position + slots.length);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * @return Número aproximado de eventos pendientes de consumir.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * @return Número de ranuras.
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Ranura con el formato fijo de un evento de login.
+     */
+    static final class Slot {
+        long timestampMillis;
+        long latencyNanos;
+        int status;
+        String result;
+        String sub;
+        String clientIp;
+        String userAgent;
+    }
+}
@@ -0,0 +1,41 @@
+package com.legendme.login.svc.infrastructure.audit;
+
+import java.io.IOException;
+
+/**
+ * Destino de los lotes de eventos de auditoría. Solo lo invoca el hilo consumidor de {@link LoginAuditLog},
+ * por lo que las implementaciones no necesitan ser thread-safe.
+ *
+ * Cada lote es un bloque de líneas NDJSON (un objeto JSON por evento, terminado en salto de línea) en UTF-8.
+ */
+public interface AuditSink extends AutoCloseable {
+
+    /**
+     * Escribe un lote.
+     *
+     * @param batch  Líneas NDJSON.
+     * @param length Número de bytes válidos de {@code batch}.
+     * @param events Número de eventos del lote.
+     * @throws IOException Si el lote no se puede escribir; sus eventos se cuentan como descartados.
+     */
+    void write(byte[] batch, int length, int events) throws IOException;
+
+    /**
+     * Hace visibles los lotes escritos hasta ahora. El consumidor lo invoca cuando el buffer queda vacío.
+     *
+     * @throws IOException Si falla la escritura.
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Libera ficheros y conexiones. {@link LoginAuditLog} también lo invoca al parar el contexto o antes de un
+     * checkpoint CRaC, y puede volver a escribir después: las implementaciones deben reabrir lo necesario en el
+     * siguiente {@link #write}.
+     *
+     * @throws IOException Si falla el cierre.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
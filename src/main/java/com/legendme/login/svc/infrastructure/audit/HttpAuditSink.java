@@ -0,0 +1,62 @@
+package com.legendme.login.svc.infrastructure.audit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link AuditSink} que envía cada lote a un colector HTTP con {@code POST <url>}, cuerpo
+ * {@code application/x-ndjson} y, si gzip está activo, {@code Content-Encoding: gzip}.
+ *
+ * Un error de red o una respuesta no 2xx hace fallar el lote, que se cuenta como descartado: el envío no se
+ * reintenta para no acumular eventos en memoria mientras el colector no está disponible.
+ */
+public class HttpAuditSink implements AuditSink {
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final RestClient restClient;
+    private final String url;
+    private final boolean gzip;
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(64 * 1024);
+
+    /**
+     * @param restClient Cliente HTTP, ya configurado con su timeout.
+     * @param url        URL del colector.
+     * @param gzip       Si el cuerpo se comprime.
+     */
+    public HttpAuditSink(RestClient restClient, String url, boolean gzip) {
+        this.restClient = restClient;
+        this.url = url;
+        this.gzip = gzip;
+    }
+
+    @Override
+    public void write(byte[] batch, int length, int events) throws IOException {
+        byte[] body;
+        if (gzip) {
+            compressed.reset();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed, 8 * 1024)) {
+                out.write(batch, 0, length);
+            }
+            body = compressed.toByteArray();
+        } else {
+            body = Arrays.copyOf(batch, length);
+        }
+        try {
+            var request = restClient.post()
+                    .uri(url)
+                    .contentType(NDJSON);
+            if (gzip) {
+                request = request.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            request.body(body).retrieve().toBodilessEntity();
+        } catch (RuntimeException e) {
+            throw new IOException("El colector de auditoría rechazó el lote: " + e.getMessage(), e);
+        }
+    }
+}
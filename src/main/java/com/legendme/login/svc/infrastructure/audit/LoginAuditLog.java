@@ -0,0 +1,267 @@
+package com.legendme.login.svc.infrastructure.audit;
+
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de auditoría de los intentos de login.
+ *
+ * Los hilos de las peticiones solo copian los campos del evento en una ranura preasignada de un
+ * {@link AuditRingBuffer} (sin locks ni E/S); un único hilo consumidor ("login-audit") vacía el buffer en lotes
+ * de hasta batchSize eventos, los codifica como NDJSON y los entrega al {@link AuditSink}. Cuando el buffer
+ * queda vacío, el consumidor hace flush del sink y espera idleWait antes de volver a mirar.
+ *
+ * Si el buffer está lleno el evento se descarta y se cuenta en login.audit.events{outcome=dropped}; la petición
+ * nunca espera al consumidor. Los lotes que el sink no consigue escribir también se cuentan como descartados.
+ *
+ * Campos de cada evento: ts (ISO-8601 UTC), result (OK, REPLAYED o código de error), status (HTTP), sub,
+ * latencyUs, ip y ua (User-Agent, truncado a 256 caracteres).
+ *
+ * Es un {@link SmartLifecycle} que se para después del servidor web: al parar el contexto y antes de un checkpoint
+ * CRaC (Spring para y vuelve a arrancar los beans Lifecycle), el consumidor escribe lo pendiente y cierra el sink,
+ * que no deja ficheros ni conexiones abiertas y vuelve a abrirse con el siguiente lote.
+ */
+@Slf4j
+public class LoginAuditLog implements SmartLifecycle, AutoCloseable {
+    /**
+     * Por debajo de la fase del servidor web, para que se pare después de atender las últimas peticiones.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    public static final String RESULT_OK = "OK";
+    public static final String RESULT_REPLAYED = "REPLAYED";
+    private static final int MAX_USER_AGENT = 256;
+
+    private final AuditRingBuffer buffer;
+    private final AuditSink sink;
+    private final int batchSize;
+    private final long idleWaitNanos;
+    private final Counter written;
+    private final Counter dropped;
+    private final Thread consumer;
+    private final StringBuilder batch = new StringBuilder(64 * 1024);
+    private final AtomicReference<CompletableFuture<Void>> closeRequest = new AtomicReference<>();
+    private volatile boolean running = true;
+    private volatile boolean started;
+
+    /**
+     * @param sink      Destino de los lotes; lo cierra este registro.
+     * @param capacity  Número de ranuras del buffer (se redondea a potencia de dos).
+     * @param batchSize Número máximo de eventos por lote.
+     * @param idleWait  Espera del consumidor cuando el buffer está vacío.
+     * @param metrics   Métricas del servicio.
+     */
+    public LoginAuditLog(AuditSink sink, int capacity, int batchSize, Duration idleWait, LoginMetrics metrics) {
+        this.buffer = new AuditRingBuffer(capacity);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.idleWaitNanos = idleWait.toNanos();
+        this.written = metrics.auditEvents("written");
+        this.dropped = metrics.auditEvents("dropped");
+        metrics.gauge("login.audit.buffer.depth", "Eventos de auditoría pendientes de escribir", buffer::size);
+        this.consumer = new Thread(this::run, "login-audit");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    private LoginAuditLog() {
+        this.buffer = null;
+        this.sink = null;
+        this.batchSize = 0;
+        this.idleWaitNanos = 0;
+        this.written = null;
+        this.dropped = null;
+        this.consumer = null;
+        this.running = false;
+    }
+
+    /**
+     * @return Un registro que descarta todos los eventos sin contarlos (app.audit.enabled=false).
+     */
+    public static LoginAuditLog disabled() {
+        return new LoginAuditLog();
+    }
+
+    /**
+     * Publica un intento de login. No bloquea ni hace E/S.
+     *
+     * @param startNanos Instante ({@link System#nanoTime()}) en que empezó a atenderse la petición.
+     * @param status     Estado HTTP de la respuesta.
+     * @param result     {@link #RESULT_OK}, {@link #RESULT_REPLAYED} o el código del error.
+     * @param sub        Identificador del usuario en el proveedor, si se conoce.
+     * @param request    Petición, de la que se toman la IP y el User-Agent.
+     */
+    public void record(long startNanos, int status, String result, String sub, HttpServletRequest request) {
+        if (buffer == null) {
+            return;
+        }
+        long latency = System.nanoTime() - startNanos;
+        String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        if (userAgent != null && userAgent.length() > MAX_USER_AGENT) {
+            userAgent = userAgent.substring(0, MAX_USER_AGENT);
+        }
+        if (!buffer.offer(System.currentTimeMillis(), latency, status, result, sub, request.getRemoteAddr(), userAgent)) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        boolean pending = false;
+        while (true) {
+            int events = buffer.drain(this::append, batchSize);
+            if (events > 0) {
+                writeBatch(events);
+                pending = true;
+                continue;
+            }
+            if (pending) {
+                try {
+                    sink.flush();
+                } catch (Exception e) {
+                    log.warn("No se pudo hacer flush del registro de auditoría: {}", e.toString());
+                }
+                pending = false;
+            }
+            if (!running) {
+                break;
+            }
+            CompletableFuture<Void> request = closeRequest.getAndSet(null);
+            if (request != null) {
+                closeSink(request);
+                continue;
+            }
+            LockSupport.parkNanos(idleWaitNanos);
+        }
+        try {
+            sink.close();
+        } catch (Exception e) {
+            log.warn("No se pudo cerrar el registro de auditoría: {}", e.toString());
+        }
+    }
+
+    private void closeSink(CompletableFuture<Void> request) {
+        try {
+            sink.close();
+            request.complete(null);
+        } catch (Exception e) {
+            log.warn("No se pudo cerrar el registro de auditoría: {}", e.toString());
+            request.completeExceptionally(e);
+        }
+    }
+
+    private void writeBatch(int events) {
+        byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        batch.setLength(0);
+        try {
+            sink.write(bytes, bytes.length, events);
+            written.increment(events);
+        } catch (Exception e) {
+            dropped.increment(events);
+            log.warn("No se pudo escribir un lote de {} eventos de auditoría: {}", events, e.toString());
+        }
+    }
+
+    private void append(AuditRingBuffer.Slot slot) {
+        StringBuilder sb = batch;
+        sb.append("{\"ts\":\"").append(Instant.ofEpochMilli(slot.timestampMillis)).append('"');
+        sb.append(",\"result\":");
+        appendString(sb, slot.result);
+        sb.append(",\"status\":").append(slot.status);
+        sb.append(",\"sub\":");
+        appendString(sb, slot.sub);
+        sb.append(",\"latencyUs\":").append(TimeUnit.NANOSECONDS.toMicros(slot.latencyNanos));
+        sb.append(",\"ip\":");
+        appendString(sb, slot.clientIp);
+        sb.append(",\"ua\":");
+        appendString(sb, slot.userAgent);
+        sb.append("}\n");
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    @Override
+    public void start() {
+        started = true;
+    }
+
+    /**
+     * Escribe los eventos pendientes y cierra el sink sin detener el consumidor; los eventos posteriores vuelven a
+     * abrirlo. Espera como máximo 5 segundos.
+     */
+    @Override
+    public void stop() {
+        started = false;
+        if (consumer == null || !running) {
+            return;
+        }
+        CompletableFuture<Void> request = new CompletableFuture<>();
+        closeRequest.set(request);
+        LockSupport.unpark(consumer);
+        try {
+            request.get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("No se pudo cerrar el sink de auditoría al parar: {}", e.toString());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return started;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Detiene el consumidor tras escribir los eventos pendientes y cierra el sink.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (consumer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,243 @@
+package com.legendme.login.svc.infrastructure.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link AuditSink} que escribe los lotes en ficheros locales comprimidos con gzip y los rota.
+ *
+ * - El fichero en curso se llama {@code login-audit-<instante UTC>-<pid>-<n>.ndjson.gz.part}; al rotar se cierra
+ *   (completando el trailer gzip) y se renombra quitando {@code .part}, de modo que un proceso que recoja los
+ *   ficheros nunca lee uno a medias.
+ * - Se rota al superar maxBytes sin comprimir o al cumplir maxAge desde su apertura, comprobado al escribir.
+ * - Se conservan como máximo maxFiles ficheros cerrados; los más antiguos se borran al rotar.
+ * - {@link #flush()} vacía el compresor con SYNC_FLUSH, para que lo escrito hasta ese momento sea legible aunque el
+ *   proceso muera antes de rotar.
+ * - Al crearse, cierra los {@code .part} que dejó un proceso que ya no existe (o una ejecución anterior con el mismo
+ *   pid, habitual en contenedores): recomprime las líneas completas en un {@code .ndjson.gz} válido y borra el
+ *   {@code .part}, de modo que entran en la rotación y en el límite de maxFiles. Por eso cada réplica debe tener su
+ *   propio directorio.
+ */
+@Slf4j
+public class RollingGzipFileSink implements AuditSink {
+    static final String PREFIX = "login-audit-";
+    static final String SUFFIX = ".ndjson.gz";
+    private static final String PART = ".part";
+    private static final long PID = ProcessHandle.current().pid();
+    private static final DateTimeFormatter STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final int maxFiles;
+
+    private OutputStream out;
+    private Path current;
+    private long written;
+    private long openedAt;
+    private int sequence;
+
+    /**
+     * @param directory Directorio de los ficheros; se crea si no existe.
+     * @param maxBytes  Bytes sin comprimir a partir de los cuales se rota.
+     * @param maxAge    Antigüedad a partir de la cual se rota.
+     * @param maxFiles  Número de ficheros cerrados que se conservan.
+     */
+    public RollingGzipFileSink(Path directory, long maxBytes, Duration maxAge, int maxFiles) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.maxFiles = maxFiles;
+        recoverStaleParts();
+        prune();
+    }
+
+    @Override
+    public void write(byte[] batch, int length, int events) throws IOException {
+        long now = System.currentTimeMillis();
+        if (out != null && (written >= maxBytes || now - openedAt >= maxAgeMillis)) {
+            rotate();
+        }
+        if (out == null) {
+            open(now);
+        }
+        out.write(batch, 0, length);
+        written += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            rotate();
+        }
+    }
+
+    private void open(long now) throws IOException {
+        // El directorio puede no existir tras restaurar un checkpoint CRaC en un volumen nuevo.
+        Files.createDirectories(directory);
+        String name = PREFIX + STAMP.format(Instant.ofEpochMilli(now)) + "-" + PID + "-" + String.format("%04d", sequence++);
+        current = directory.resolve(name + SUFFIX + PART);
+        out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(current), 64 * 1024), 64 * 1024, true);
+        written = 0;
+        openedAt = now;
+    }
+
+    private void rotate() throws IOException {
+        Path part = current;
+        try {
+            out.close();
+        } finally {
+            out = null;
+            current = null;
+        }
+        String name = part.getFileName().toString();
+        Files.move(part, part.resolveSibling(name.substring(0, name.length() - PART.length())),
+                StandardCopyOption.ATOMIC_MOVE);
+        prune();
+    }
+
+    private void recoverStaleParts() throws IOException {
+        List<Path> parts;
+        try (Stream<Path> files = Files.list(directory)) {
+            parts = files
+                    .filter(f -> {
+                        String name = f.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX + PART);
+                    })
+                    .toList();
+        }
+        for (Path part : parts) {
+            if (isStale(part.getFileName().toString())) {
+                recover(part);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} si el proceso que escribía el fichero ya no existe. Un pid igual al propio también cuenta:
+     *         este sink aún no ha abierto ningún fichero.
+     */
+    private static boolean isStale(String name) {
+        String[] parts = name.substring(PREFIX.length(), name.length() - SUFFIX.length() - PART.length()).split("-");
+        try {
+            long pid = Long.parseLong(parts[parts.length - 2]);
+            return pid == PID || ProcessHandle.of(pid).map(p -> !p.isAlive()).orElse(true);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Recomprime las líneas completas de un {@code .part} sin trailer gzip en el fichero cerrado correspondiente.
+     * La última línea se descarta si quedó a medias; si no hay ninguna completa, el {@code .part} solo se borra.
+     */
+    private void recover(Path part) {
+        String name = part.getFileName().toString();
+        Path closed = part.resolveSibling(name.substring(0, name.length() - PART.length()));
+        Path tmp = part.resolveSibling(name + ".tmp");
+        long recovered = 0;
+        try {
+            try (OutputStream gz = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)), 64 * 1024)) {
+                recovered = copyCompleteLines(part, gz);
+            }
+            if (recovered > 0) {
+                Files.move(tmp, closed, StandardCopyOption.ATOMIC_MOVE);
+                log.warn("Recuperado fichero de auditoría incompleto {} ({} bytes)", closed.getFileName(), recovered);
+            } else {
+                Files.deleteIfExists(tmp);
+            }
+            Files.deleteIfExists(part);
+        } catch (IOException e) {
+            log.warn("No se pudo recuperar el fichero de auditoría {}: {}", name, e.toString());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // el .part se conserva y se reintenta en el próximo arranque
+            }
+        }
+    }
+
+    private static long copyCompleteLines(Path part, OutputStream target) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        long copied = 0;
+        try (InputStream raw = Files.newInputStream(part)) {
+            InputStream in;
+            try {
+                in = new GZIPInputStream(raw, buffer.length);
+            } catch (IOException e) {
+                return 0; // vacío o sin la cabecera gzip completa
+            }
+            int n;
+            while ((n = readUntilBroken(in, buffer)) > 0) {
+                int lastNewline = n - 1;
+                while (lastNewline >= 0 && buffer[lastNewline] != '\n') {
+                    lastNewline--;
+                }
+                if (lastNewline < 0) {
+                    pending.write(buffer, 0, n);
+                    continue;
+                }
+                pending.writeTo(target);
+                target.write(buffer, 0, lastNewline + 1);
+                copied += pending.size() + lastNewline + 1;
+                pending.reset();
+                pending.write(buffer, lastNewline + 1, n - lastNewline - 1);
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Lee del {@code .part}; sin trailer gzip o con el último bloque a medias, el final del contenido legible se
+     * trata como fin de fichero.
+     */
+    private static int readUntilBroken(InputStream in, byte[] buffer) {
+        try {
+            return in.read(buffer);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void prune() {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> closed = files
+                    .filter(f -> {
+                        String name = f.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+            for (int i = 0; i < closed.size() - maxFiles; i++) {
+                Files.deleteIfExists(closed.get(i));
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron borrar los ficheros de auditoría antiguos: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.legendme.login.svc.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.adapters.out.http.dto.UserResponse;
+import com.legendme.login.svc.adapters.out.security.JwtAuthenticationFilter.AuthPrincipal;
+import com.legendme.login.svc.application.port.out.GoogleTokenVerifierPort.VerifiedGoogleUser;
+import com.legendme.login.svc.domain.usecase.AuthenticateWithGoogle;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las cachés de dos niveles del login ({@link TieredCache}).
+ *
+ * - googleTokenCache: hash del idToken de Google → {@link VerifiedGoogleUser}, hasta la expiración del token.
+ *   Evita repetir la verificación RS256 cuando el cliente reintenta el login con el mismo idToken.
+ * - userCache: sub de Google + huella del nombre y el email → {@link UserResponse}, durante app.cache.users.ttl. Evita el upsert contra
+ *   legendme-users-svc en logins repetidos; es la caché que más se beneficia de L2.
+ * - accessTokenCache: JWT propio → {@link AuthPrincipal}, hasta la expiración del token. Solo L1: verificar
+ *   la firma HMAC es más rápido que un viaje de red a L2.
+ *
+ * También define loginIdempotencyCache ({@link IdempotencyCache}): Idempotency-Key → resultado del login, durante
+ * app.idempotency.ttl. Solo en memoria de la réplica: los reintentos de un cliente suelen volver a la misma
+ * réplica por la conexión keep-alive, y en otra réplica el reintento simplemente se ejecuta de nuevo.
+ *
+ * L2 ({@link RedisRemoteCacheTier}) se activa con app.cache.l2.enabled=true y, por caché, con
+ * app.cache.google-tokens.l2 y app.cache.users.l2. Un max-size de 0 desactiva la caché correspondiente.
+ *
+ * app.cache.l2.enabled se evalúa al arrancar y no con @ConditionalOnProperty: con AOT (-Paot) las condiciones
+ * quedan fijadas en tiempo de build y CACHE_L2_ENABLED se ignoraría en la imagen. El bean de L2 es lazy y solo se
+ * crea (y se conecta) si alguna caché lo usa.
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Nivel remoto compartido por las réplicas.
+     *
+     * @param uri     URI del servidor Redis.
+     * @param timeout Tiempo máximo de espera de cada comando.
+     * @return el nivel remoto conectado.
+     */
+    @Lazy
+    @Bean(destroyMethod = "close")
+    public RedisRemoteCacheTier remoteCacheTier(
+            @Value("${app.cache.l2.uri}") String uri,
+            @Value("${app.cache.l2.timeout:50ms}") Duration timeout) {
+        return new RedisRemoteCacheTier(uri, timeout);
+    }
+
+    @Bean
+    public TieredCache<VerifiedGoogleUser> googleTokenCache(
+            @Value("${app.cache.google-tokens.max-size:10000}") long maxSize,
+            @Value("${app.cache.google-tokens.max-ttl:1h}") Duration maxTtl,
+            @Value("${app.cache.google-tokens.l2:false}") boolean l2,
+            @Value("${app.cache.l2.enabled:false}") boolean l2Enabled,
+            ObjectProvider<RemoteCacheTier> remote,
+            ObjectMapper mapper,
+            LoginMetrics metrics) {
+        return new TieredCache<>("google-tokens", maxSize, maxTtl, VerifiedGoogleUser.class,
+                l2 && l2Enabled ? remote.getIfAvailable() : null, mapper, metrics);
+    }
+
+    @Bean
+    public TieredCache<UserResponse> userCache(
+            @Value("${app.cache.users.max-size:50000}") long maxSize,
+            @Value("${app.cache.users.ttl:5m}") Duration ttl,
+            @Value("${app.cache.users.l2:true}") boolean l2,
+            @Value("${app.cache.l2.enabled:false}") boolean l2Enabled,
+            ObjectProvider<RemoteCacheTier> remote,
+            ObjectMapper mapper,
+            LoginMetrics metrics) {
+        return new TieredCache<>("users", maxSize, ttl, UserResponse.class,
+                l2 && l2Enabled ? remote.getIfAvailable() : null, mapper, metrics);
+    }
+
+    @Bean
+    public TieredCache<AuthPrincipal> accessTokenCache(
+            @Value("${app.cache.access-tokens.max-size:50000}") long maxSize,
+            @Value("${app.cache.access-tokens.max-ttl:1h}") Duration maxTtl,
+            ObjectMapper mapper,
+            LoginMetrics metrics) {
+        return new TieredCache<>("access-tokens", maxSize, maxTtl, AuthPrincipal.class, null, mapper, metrics);
+    }
+
+    @Bean
+    public IdempotencyCache<AuthenticateWithGoogle.Result> loginIdempotencyCache(
+            @Value("${app.idempotency.max-size:100000}") long maxSize,
+            @Value("${app.idempotency.ttl:10m}") Duration ttl,
+            @Value("${app.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            LoginMetrics metrics) {
+        return new IdempotencyCache<>(maxSize, ttl, waitTimeout, metrics);
+    }
+}
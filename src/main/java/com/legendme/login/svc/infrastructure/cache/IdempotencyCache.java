@@ -0,0 +1,144 @@
+package com.legendme.login.svc.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.exceptions.AuthError;
+import com.legendme.login.svc.shared.exceptions.AuthFailureException;
+import com.legendme.login.svc.shared.exceptions.ErrorException;
+import io.micrometer.core.instrument.Counter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Caché de respuestas por clave de idempotencia (cabecera Idempotency-Key).
+ *
+ * La primera petición con una clave registra su huella (hash del cuerpo) y un futuro, ejecuta la operación y
+ * completa el futuro con el resultado. Mientras la entrada exista (ttl, como máximo maxSize entradas):
+ * - Una petición con la misma clave y la misma huella recibe el mismo resultado sin ejecutar la operación; si la
+ *   primera sigue en curso, espera su resultado como máximo waitTimeout (después, 409 G-LOG-12).
+ * - Una petición con la misma clave y otra huella se rechaza con 422 (G-LOG-11).
+ *
+ * Solo se conservan los resultados correctos: si la operación falla, la entrada se elimina (las peticiones que
+ * ya esperaban reciben el mismo error) y un reintento posterior vuelve a ejecutarla.
+ *
+ * Métricas: login.idempotency.requests{result=executed|replayed|mismatch|timeout}.
+ *
+ * @param <V> Tipo del resultado.
+ */
+public class IdempotencyCache<V> {
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Slot<V>> entries;
+    private final long waitTimeoutMillis;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatches;
+    private final Counter timeouts;
+
+    /**
+     * @param maxSize     Número máximo de claves.
+     * @param ttl         Tiempo durante el que se conserva el resultado de una clave.
+     * @param waitTimeout Espera máxima de un duplicado a que termine la petición original.
+     * @param metrics     Métricas del servicio.
+     */
+    public IdempotencyCache(long maxSize, Duration ttl, Duration waitTimeout, LoginMetrics metrics) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.executed = metrics.idempotencyRequests("executed");
+        this.replayed = metrics.idempotencyRequests("replayed");
+        this.mismatches = metrics.idempotencyRequests("mismatch");
+        this.timeouts = metrics.idempotencyRequests("timeout");
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave, o devuelve el resultado de la ejecución anterior.
+     *
+     * @param key         Valor de la cabecera Idempotency-Key.
+     * @param fingerprint Huella del cuerpo de la petición.
+     * @param operation   Operación a ejecutar.
+     * @return El resultado e indicación de si procede de una ejecución anterior.
+     * @throws ErrorException Si la clave no es válida, se reutiliza con otro cuerpo o la espera expira; los errores
+     *                        de la operación se propagan sin modificar.
+     */
+    public Execution<V> execute(String key, String fingerprint, Supplier<V> operation) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw AuthError.INVALID_IDEMPOTENCY_KEY.exception();
+        }
+        Slot<V> mine = new Slot<>(fingerprint, new CompletableFuture<>());
+        Slot<V> existing = entries.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                mismatches.increment();
+                throw AuthError.IDEMPOTENCY_KEY_MISMATCH.exception();
+            }
+            V value = await(existing.result());
+            replayed.increment();
+            return new Execution<>(value, true);
+        }
+        try {
+            V value = operation.get();
+            mine.result().complete(value);
+            executed.increment();
+            return new Execution<>(value, false);
+        } catch (Throwable e) {
+            // También los Error (OutOfMemoryError, StackOverflowError...): si el hueco quedara sin completar, los
+            // reintentos con la misma clave esperarían hasta el timeout mientras dure la entrada.
+            entries.asMap().remove(key, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return Número aproximado de claves en la caché.
+     */
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private V await(CompletableFuture<V> result) {
+        try {
+            return result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private static AuthFailureException inProgress() {
+        return AuthError.IDEMPOTENCY_IN_PROGRESS.exception();
+    }
+
+    /**
+     * Resultado de {@link #execute}.
+     *
+     * @param value    El resultado de la operación.
+     * @param replayed {@code true} si se devolvió el resultado de una ejecución anterior.
+     * @param <V>      Tipo del resultado.
+     */
+    public record Execution<V>(V value, boolean replayed) {
+    }
+
+    private record Slot<V>(String fingerprint, CompletableFuture<V> result) {
+    }
+}
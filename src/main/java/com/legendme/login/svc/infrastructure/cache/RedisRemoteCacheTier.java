@@ -0,0 +1,46 @@
+package com.legendme.login.svc.infrastructure.cache;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+
+import java.time.Duration;
+
+/**
+ * {@link RemoteCacheTier} sobre Redis (o cualquier servidor compatible con su protocolo) usando Lettuce.
+ *
+ * Una única conexión multiplexada para GET/SET; las escrituras son asíncronas para no añadir un viaje de red a la
+ * petición, las lecturas esperan como máximo el timeout configurado.
+ */
+public class RedisRemoteCacheTier implements RemoteCacheTier, AutoCloseable {
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, String> connection;
+
+    /**
+     * @param uri     URI del servidor, por ejemplo {@code redis://cache:6379}.
+     * @param timeout Tiempo máximo de espera de cada comando.
+     */
+    public RedisRemoteCacheTier(String uri, Duration timeout) {
+        this.client = RedisClient.create(uri);
+        this.client.setOptions(ClientOptions.builder().timeoutOptions(TimeoutOptions.enabled(timeout)).build());
+        this.connection = client.connect();
+    }
+
+    @Override
+    public String get(String key) {
+        return connection.sync().get(key);
+    }
+
+    @Override
+    public void set(String key, String value, Duration ttl) {
+        connection.async().set(key, value, SetArgs.Builder.px(ttl.toMillis()));
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+        client.shutdown();
+    }
+}
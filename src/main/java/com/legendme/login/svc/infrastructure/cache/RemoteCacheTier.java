@@ -0,0 +1,28 @@
+package com.legendme.login.svc.infrastructure.cache;
+
+import java.time.Duration;
+
+/**
+ * SPI del nivel remoto (L2) de {@link TieredCache}, compartido por todas las réplicas.
+ *
+ * Almacenamiento clave/valor con TTL.
+ *
+ * Implementaciones: {@link RedisRemoteCacheTier} (protocolo Redis) y, en tests, un sustituto en memoria.
+ */
+public interface RemoteCacheTier {
+
+    /**
+     * @param key Clave completa.
+     * @return El valor almacenado, o {@code null} si no existe o ha expirado.
+     */
+    String get(String key);
+
+    /**
+     * Almacena un valor con expiración. Puede ejecutarse de forma asíncrona.
+     *
+     * @param key   Clave completa.
+     * @param value Valor serializado.
+     * @param ttl   Tiempo de vida.
+     */
+    void set(String key, String value, Duration ttl);
+}
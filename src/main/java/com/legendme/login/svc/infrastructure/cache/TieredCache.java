@@ -0,0 +1,297 @@
+package com.legendme.login.svc.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Caché de dos niveles.
+ *
+ * - L1: caché en proceso (Caffeine, admisión W-TinyLFU) con expiración por entrada, de modo que cada valor
+ *   caduca con el token o registro que representa y no con un TTL global.
+ * - L2 (opcional): {@link RemoteCacheTier} compartido por todas las réplicas. Un fallo de L1 consulta L2 antes
+ *   de invocar al cargador.
+ *
+ * No hay invalidación entre réplicas: ninguna caché guarda valores que cambien sin cambiar su clave (los usuarios
+ * llevan la huella de sus datos en la clave, los tokens su configuración), así que cada entrada vive hasta su
+ * expiración o hasta {@link #invalidateLocal()}.
+ *
+ * Las cargas concurrentes de una misma clave en una réplica se coalescen: solo un hilo consulta L2 y el cargador,
+ * el resto espera su resultado (o su excepción). La carga se hace fuera del cómputo de Caffeine para que una
+ * llamada lenta no bloquee otras claves. Cualquier fallo de L2 se trata como un fallo de caché; la caché nunca hace fallar
+ * una petición que habría funcionado sin ella.
+ *
+ * Los valores se guardan en L2 como {@code <expiraEnEpochMillis>:<json>}.
+ *
+ * @param <V> Tipo del valor almacenado.
+ */
+@Slf4j
+public class TieredCache<V> {
+    private static final String KEY_PREFIX = "legendme-login:";
+
+    private final String name;
+    private final Cache<String, Entry<V>> local;
+    private final RemoteCacheTier remote;
+    private final ObjectMapper mapper;
+    private final Class<V> type;
+    private final Duration maxTtl;
+    private final ConcurrentHashMap<String, CompletableFuture<Entry<V>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+
+    /**
+     * @param name    Nombre de la caché; forma parte de las claves de L2 y de la etiqueta de las métricas.
+     * @param maxSize Número máximo de entradas en L1.
+     * @param maxTtl  Tiempo de vida máximo de una entrada, independientemente de la expiración solicitada.
+     * @param type    Clase del valor, usada para deserializar desde L2.
+     * @param remote  Nivel remoto, o {@code null} para usar solo L1.
+     * @param mapper  ObjectMapper para serializar los valores en L2.
+     * @param metrics Métricas del servicio.
+     */
+    public TieredCache(String name, long maxSize, Duration maxTtl, Class<V> type,
+                       RemoteCacheTier remote, ObjectMapper mapper, LoginMetrics metrics) {
+        this.name = name;
+        this.maxTtl = maxTtl;
+        this.type = type;
+        this.remote = remote;
+        this.mapper = mapper;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry<V>())
+                .build();
+        this.l1Hits = metrics.cacheRequests(name, "l1_hit");
+        this.l2Hits = metrics.cacheRequests(name, "l2_hit");
+        this.misses = metrics.cacheRequests(name, "miss");
+    }
+
+    /**
+     * Busca un valor en L1 y, si no está, en L2.
+     *
+     * @param key La clave.
+     * @return El valor, o {@code null} si no está en ningún nivel.
+     */
+    public V getIfPresent(String key) {
+        Entry<V> entry = local.getIfPresent(key);
+        if (entry != null) {
+            l1Hits.increment();
+            return entry.value();
+        }
+        entry = readRemote(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        local.put(key, entry);
+        return entry.value();
+    }
+
+    /**
+     * Busca un valor en L1 y L2; si no está, lo obtiene con el cargador y lo guarda en ambos niveles.
+     * Las excepciones del cargador se propagan sin modificar y no se cachean.
+     *
+     * @param key    La clave.
+     * @param loader Cargador invocado en un fallo de ambos niveles. Puede devolver {@code null} para no cachear.
+     * @return El valor, o {@code null} si el cargador no devolvió nada.
+     */
+    public V get(String key, Function<String, Entry<V>> loader) {
+        Entry<V> entry = local.getIfPresent(key);
+        if (entry != null) {
+            l1Hits.increment();
+            return entry.value();
+        }
+        CompletableFuture<Entry<V>> load = new CompletableFuture<>();
+        CompletableFuture<Entry<V>> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            entry = await(running);
+            return entry == null ? null : entry.value();
+        }
+        try {
+            entry = readRemote(key);
+            if (entry != null) {
+                l2Hits.increment();
+                local.put(key, entry);
+            } else {
+                misses.increment();
+                entry = cap(loader.apply(key));
+                if (entry != null) {
+                    local.put(key, entry);
+                    writeRemote(key, entry);
+                }
+            }
+            load.complete(entry);
+            return entry == null ? null : entry.value();
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Guarda un valor en ambos niveles.
+     *
+     * @param key   La clave.
+     * @param entry El valor y su expiración.
+     */
+    public void put(String key, Entry<V> entry) {
+        entry = cap(entry);
+        local.put(key, entry);
+        writeRemote(key, entry);
+    }
+
+    /**
+     * Vacía el nivel local de esta réplica. L2 no se modifica.
+     */
+    public void invalidateLocal() {
+        local.invalidateAll();
+    }
+
+    /**
+     * @return Tiempo de vida máximo de una entrada en esta caché.
+     */
+    public Duration maxTtl() {
+        return maxTtl;
+    }
+
+    /**
+     * Deriva una clave de longitud fija (SHA-256 en Base64 URL) a partir de un secreto, por ejemplo un token,
+     * para no guardarlo en claro como clave de L2.
+     *
+     * @param secret El valor a resumir.
+     * @return La clave.
+     */
+    public static String hashKey(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return Número aproximado de entradas en L1.
+     */
+    public long localSize() {
+        return local.estimatedSize();
+    }
+
+    private static <V> Entry<V> await(CompletableFuture<Entry<V>> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Entry<V> cap(Entry<V> entry) {
+        if (entry == null) {
+            return null;
+        }
+        long limit = System.currentTimeMillis() + maxTtl.toMillis();
+        return entry.expiresAtMillis() <= limit ? entry : new Entry<>(entry.value(), limit);
+    }
+
+    private Entry<V> readRemote(String key) {
+        if (remote == null) {
+            return null;
+        }
+        try {
+            String raw = remote.get(remoteKey(key));
+            if (raw == null) {
+                return null;
+            }
+            int colon = raw.indexOf(':');
+            long expiresAt = Long.parseLong(raw, 0, colon, 10);
+            if (expiresAt <= System.currentTimeMillis()) {
+                return null;
+            }
+            return new Entry<>(mapper.readValue(raw.substring(colon + 1), type), expiresAt);
+        } catch (Exception e) {
+            log.debug("Lectura de la caché {} en L2 fallida: {}", name, e.toString());
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, Entry<V> entry) {
+        if (remote == null) {
+            return;
+        }
+        long ttl = entry.expiresAtMillis() - System.currentTimeMillis();
+        if (ttl <= 0) {
+            return;
+        }
+        try {
+            remote.set(remoteKey(key), entry.expiresAtMillis() + ":" + mapper.writeValueAsString(entry.value()),
+                    Duration.ofMillis(ttl));
+        } catch (Exception e) {
+            log.debug("Escritura de la caché {} en L2 fallida: {}", name, e.toString());
+        }
+    }
+
+    private String remoteKey(String key) {
+        return KEY_PREFIX + name + ':' + key;
+    }
+
+    /**
+     * Valor cacheado junto con el instante (epoch millis) en que expira.
+     *
+     * @param value           El valor.
+     * @param expiresAtMillis Instante de expiración.
+     * @param <V>             Tipo del valor.
+     */
+    public record Entry<V>(V value, long expiresAtMillis) {
+
+        public static <V> Entry<V> of(V value, Duration ttl) {
+            return new Entry<>(value, System.currentTimeMillis() + ttl.toMillis());
+        }
+
+        public static <V> Entry<V> until(V value, Instant expiresAt) {
+            return new Entry<>(value, expiresAt.toEpochMilli());
+        }
+    }
+
+    private static final class EntryExpiry<V> implements Expiry<String, Entry<V>> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry<V> entry, long currentTime) {
+            return remaining(entry);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry<V> entry, long currentTime, long currentDuration) {
+            return remaining(entry);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry<V> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long remaining(Entry<?> entry) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAtMillis() - System.currentTimeMillis()));
+        }
+    }
+}
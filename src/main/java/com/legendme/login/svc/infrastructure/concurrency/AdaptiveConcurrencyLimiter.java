@@ -0,0 +1,159 @@
+package com.legendme.login.svc.infrastructure.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limitador de concurrencia adaptativo basado en gradiente de latencia, con retroceso multiplicativo
+ * (AIMD) ante fallos.
+ *
+ * Las latencias se agregan por ventanas de {@code max(10, límite)} muestras (aproximadamente una renovación
+ * completa de las peticiones en vuelo) y al cerrar cada ventana el límite se recalcula con la latencia media:
+ * <pre>
+ *   gradiente = clamp(tolerancia * minRtt / rtt, 0.5, 1.0)
+ *   nuevo     = límite * gradiente + sqrt(límite)
+ *   límite    = (1 - suavizado) * límite + suavizado * nuevo
+ * </pre>
+ * Mientras la latencia se mantiene cerca de la mínima el límite crece en {@code sqrt(límite)}; cuando el
+ * servicio remoto se satura y la latencia sube, el gradiente lo reduce hacia su capacidad real.
+ * Si la ventana contiene alguna muestra fallida (timeout, 5xx) se aplica {@code límite * backoff} una sola vez.
+ * Actualizar por ventana, y no por muestra, evita reaccionar varias veces a latencias que todavía reflejan
+ * la concurrencia anterior.
+ *
+ * La latencia mínima se vuelve a medir cada {@code probeInterval} ventanas: el límite se reduce a la mitad
+ * durante una ventana y el mínimo observado en ella pasa a ser la nueva referencia. Así un cambio de la latencia
+ * base de users-svc (por ejemplo tras un despliegue) se incorpora sin que una saturación sostenida la infle.
+ *
+ * La admisión ({@link #tryAcquire()}) es un CAS sobre el contador de peticiones en vuelo; solo la actualización
+ * del límite, que se ejecuta al terminar cada petición, está sincronizada.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int probeInterval;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    private long minRtt = Long.MAX_VALUE;
+    private long sampleSum;
+    private int sampleCount;
+    private boolean sampleDropped;
+    private int windowsSinceProbe;
+
+    /**
+     * @param initialLimit  Límite inicial de peticiones en vuelo.
+     * @param minLimit      Límite mínimo.
+     * @param maxLimit      Límite máximo.
+     * @param tolerance     Aumento de latencia tolerado respecto al mínimo antes de reducir el límite (>= 1.0).
+     * @param smoothing     Peso de cada nueva estimación (0, 1].
+     * @param backoffRatio  Factor aplicado al límite ante una ventana con fallos (0, 1).
+     * @param probeInterval Número de ventanas entre dos mediciones de la latencia mínima.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing, double backoffRatio, int probeInterval) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Se requiere 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (tolerance < 1.0 || smoothing <= 0 || smoothing > 1 || backoffRatio <= 0 || backoffRatio >= 1 || probeInterval < 2) {
+            throw new IllegalArgumentException("Parámetros del limitador de concurrencia no válidos");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.probeInterval = probeInterval;
+    }
+
+    /**
+     * Intenta admitir una petición.
+     *
+     * @return {@code true} si hay hueco bajo el límite actual; el llamante debe invocar
+     * {@link #release(long, boolean)} al terminar. {@code false} si la petición debe rechazarse.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera una petición admitida y aporta su latencia al cálculo del límite.
+     *
+     * @param rttNanos Duración de la petición en nanosegundos.
+     * @param dropped  {@code true} si la petición falló por sobrecarga (timeout, 5xx).
+     */
+    public void release(long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, dropped);
+    }
+
+    /**
+     * Libera una petición admitida sin aportar muestra: para respuestas 4xx, cuya latencia (un rechazo rápido)
+     * no refleja la de un login y hundiría la latencia mínima.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return El límite actual de peticiones en vuelo.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return El número de peticiones en vuelo.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, boolean dropped) {
+        if (dropped) {
+            sampleDropped = true;
+        } else {
+            long rtt = Math.max(1, rttNanos);
+            minRtt = Math.min(minRtt, rtt);
+            sampleSum += rtt;
+        }
+        double current = limit;
+        if (++sampleCount < Math.max(MIN_WINDOW_SAMPLES, (int) current)) {
+            return;
+        }
+
+        double next;
+        if (sampleDropped || sampleSum == 0) {
+            next = current * backoffRatio;
+        } else {
+            double rtt = (double) sampleSum / sampleCount;
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRtt / rtt));
+            double estimate = current * gradient + Math.sqrt(current);
+            next = (1 - smoothing) * current + smoothing * estimate;
+        }
+        if (++windowsSinceProbe >= probeInterval) {
+            // La siguiente ventana se ejecuta con la mitad de concurrencia y fija la nueva latencia mínima.
+            windowsSinceProbe = 0;
+            minRtt = Long.MAX_VALUE;
+            next = current / 2;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+        sampleSum = 0;
+        sampleCount = 0;
+        sampleDropped = false;
+    }
+}
@@ -0,0 +1,154 @@
+package com.legendme.login.svc.infrastructure.concurrency;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Planificador de admisión con prioridad por coste de la petición.
+ *
+ * Clases:
+ * - {@link RequestClass#AUTHENTICATED}: llamadas con JWT propio (baratas, solo HMAC). Prioridad alta.
+ * - {@link RequestClass#LOGIN}: logins nuevos con Google (RS256 + users-svc + firma). Prioridad baja.
+ *
+ * Reglas:
+ * 1. Hay {@code maxConcurrent} permisos de ejecución compartidos; los logins solo pueden ocupar
+ *    {@code loginMaxConcurrent} de ellos, dejando el resto reservado para usuarios ya autenticados.
+ * 2. Cada clase tiene una cola acotada ({@code maxQueue}) y un tiempo máximo de espera ({@code maxWait})
+ *    medido desde la llegada de la petición; al superarlo la petición se descarta en lugar de ejecutarse tarde.
+ * 3. Si hay peticiones autenticadas esperando, los logins nuevos se descartan sin encolarse: bajo sobrecarga
+ *    la cola de la clase cara se acorta primero.
+ */
+public class AdmissionScheduler {
+
+    /**
+     * Clase de coste de una petición.
+     */
+    public enum RequestClass { AUTHENTICATED, LOGIN }
+
+    /**
+     * Resultado de la admisión.
+     */
+    public enum Decision { ADMITTED, SHED_QUEUE_FULL, SHED_DEADLINE }
+
+    private final Semaphore permits;
+    private final Semaphore loginPermits;
+    private final AtomicInteger authenticatedWaiting = new AtomicInteger();
+    private final AtomicInteger loginWaiting = new AtomicInteger();
+    private final int authenticatedMaxQueue;
+    private final int loginMaxQueue;
+    private final long authenticatedMaxWaitNanos;
+    private final long loginMaxWaitNanos;
+
+    /**
+     * @param maxConcurrent            Peticiones que pueden ejecutarse a la vez.
+     * @param loginMaxConcurrent       Máximo de esas peticiones que pueden ser logins.
+     * @param authenticatedMaxQueue    Peticiones autenticadas que pueden esperar a la vez.
+     * @param authenticatedMaxWaitNanos Espera máxima de una petición autenticada.
+     * @param loginMaxQueue            Logins que pueden esperar a la vez.
+     * @param loginMaxWaitNanos        Espera máxima de un login.
+     */
+    public AdmissionScheduler(int maxConcurrent, int loginMaxConcurrent,
+                              int authenticatedMaxQueue, long authenticatedMaxWaitNanos,
+                              int loginMaxQueue, long loginMaxWaitNanos) {
+        if (maxConcurrent < 1 || loginMaxConcurrent < 1 || loginMaxConcurrent > maxConcurrent) {
+            throw new IllegalArgumentException("Se requiere 1 <= loginMaxConcurrent <= maxConcurrent");
+        }
+        if (authenticatedMaxQueue < 0 || loginMaxQueue < 0) {
+            throw new IllegalArgumentException("Las colas no pueden tener tamaño negativo");
+        }
+        this.permits = new Semaphore(maxConcurrent);
+        this.loginPermits = new Semaphore(loginMaxConcurrent);
+        this.authenticatedMaxQueue = authenticatedMaxQueue;
+        this.authenticatedMaxWaitNanos = authenticatedMaxWaitNanos;
+        this.loginMaxQueue = loginMaxQueue;
+        this.loginMaxWaitNanos = loginMaxWaitNanos;
+    }
+
+    /**
+     * Intenta admitir una petición. Si la decisión es {@link Decision#ADMITTED}, el llamante debe invocar
+     * {@link #release(RequestClass)} al terminar.
+     *
+     * @param requestClass La clase de la petición.
+     * @param arrivalNanos Instante de llegada ({@link System#nanoTime()}).
+     * @return La decisión de admisión.
+     */
+    public Decision admit(RequestClass requestClass, long arrivalNanos) throws InterruptedException {
+        if (requestClass == RequestClass.LOGIN) {
+            return admitLogin(arrivalNanos);
+        }
+        if (permits.tryAcquire()) {
+            return Decision.ADMITTED;
+        }
+        if (authenticatedWaiting.incrementAndGet() > authenticatedMaxQueue) {
+            authenticatedWaiting.decrementAndGet();
+            return Decision.SHED_QUEUE_FULL;
+        }
+        try {
+            return acquire(permits, arrivalNanos + authenticatedMaxWaitNanos)
+                    ? Decision.ADMITTED : Decision.SHED_DEADLINE;
+        } finally {
+            authenticatedWaiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Libera el permiso de una petición admitida.
+     *
+     * @param requestClass La clase con la que se admitió la petición.
+     */
+    public void release(RequestClass requestClass) {
+        permits.release();
+        if (requestClass == RequestClass.LOGIN) {
+            loginPermits.release();
+        }
+    }
+
+    /**
+     * @return Peticiones autenticadas esperando admisión.
+     */
+    public int getAuthenticatedWaiting() {
+        return authenticatedWaiting.get();
+    }
+
+    /**
+     * @return Logins esperando admisión.
+     */
+    public int getLoginWaiting() {
+        return loginWaiting.get();
+    }
+
+    private Decision admitLogin(long arrivalNanos) throws InterruptedException {
+        if (loginPermits.tryAcquire()) {
+            if (permits.tryAcquire()) {
+                return Decision.ADMITTED;
+            }
+            loginPermits.release();
+        }
+        if (authenticatedWaiting.get() > 0) {
+            return Decision.SHED_QUEUE_FULL;
+        }
+        if (loginWaiting.incrementAndGet() > loginMaxQueue) {
+            loginWaiting.decrementAndGet();
+            return Decision.SHED_QUEUE_FULL;
+        }
+        try {
+            long deadline = arrivalNanos + loginMaxWaitNanos;
+            if (!acquire(loginPermits, deadline)) {
+                return Decision.SHED_DEADLINE;
+            }
+            if (!acquire(permits, deadline)) {
+                loginPermits.release();
+                return Decision.SHED_DEADLINE;
+            }
+            return Decision.ADMITTED;
+        } finally {
+            loginWaiting.decrementAndGet();
+        }
+    }
+
+    private static boolean acquire(Semaphore semaphore, long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        return remaining > 0 && semaphore.tryAcquire(remaining, TimeUnit.NANOSECONDS);
+    }
+}
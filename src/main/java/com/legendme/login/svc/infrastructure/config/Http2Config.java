@@ -0,0 +1,46 @@
+package com.legendme.login.svc.infrastructure.config;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Ajustes de HTTP/2 del Tomcat embebido.
+ *
+ * Con server.http2.enabled=true y sin TLS, Spring Boot registra el protocolo HTTP/2 como upgrade del conector
+ * HTTP/1.1, de modo que el mismo puerto acepta HTTP/1.1, h2c por upgrade y h2c con prior knowledge (lo que usa
+ * el proxy que termina TLS). Esta clase ajusta los límites por conexión que Spring Boot no expone:
+ *
+ * - max-concurrent-streams: streams abiertos simultáneamente por conexión (anunciado al cliente).
+ * - max-concurrent-stream-execution: streams de una misma conexión que se ejecutan a la vez en el pool de Tomcat.
+ *   El valor por defecto de Tomcat (20) serializa las ráfagas de peticiones paralelas del cliente de juego.
+ * - keep-alive-timeout: tiempo que una conexión HTTP/2 ociosa permanece abierta.
+ *
+ * No lleva @ConditionalOnProperty: con la imagen AOT esa condición quedaría fijada al compilar. Si HTTP/2 está
+ * desactivado el conector no tiene el upgrade y el customizer no hace nada.
+ */
+@Configuration
+public class Http2Config {
+
+    @Bean
+    public TomcatConnectorCustomizer http2ConnectorCustomizer(
+            @Value("${app.http2.max-concurrent-streams:100}") long maxConcurrentStreams,
+            @Value("${app.http2.max-concurrent-stream-execution:100}") int maxConcurrentStreamExecution,
+            @Value("${app.http2.keep-alive-timeout:60s}") Duration keepAliveTimeout) {
+        return (Connector connector) -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+                    http2.setKeepAliveTimeout(keepAliveTimeout.toMillis());
+                }
+            }
+        };
+    }
+}
@@ -1,8 +1,15 @@
 package com.legendme.login.svc.infrastructure.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.ReactorResourceFactory;
 import org.springframework.web.client.RestClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 /**
  * Configuración central de cliente HTTP para la aplicación.
@@ -19,6 +26,10 @@ import org.springframework.web.client.RestClient;
  * - Permite extender fácilmente con timeouts, interceptores o headers globales.
  * - Facilita pruebas unitarias al poder mockear el RestClient.
  *
+ * El cliente usa un pool de conexiones de Reactor Netty con métricas habilitadas,
+ * por lo que los gauges reactor.netty.connection.provider.* (conexiones activas,
+ * ociosas, pendientes y totales) quedan expuestos en /actuator/prometheus.
+ *
  * Ejemplo de uso:
  * {@code
  * @Service
@@ -35,17 +46,66 @@ import org.springframework.web.client.RestClient;
 @Configuration
 public class RestClientConfig {
 
+    /**
+     * Recursos de Reactor Netty (pool de conexiones y event loops) propios del cliente saliente,
+     * con métricas de Micrometer habilitadas en el pool.
+     *
+     * Al ser un bean {@link org.springframework.context.SmartLifecycle}, Spring los libera al parar el contexto
+     * y los vuelve a crear al arrancarlo; esto permite tomar un checkpoint CRaC sin sockets abiertos.
+     *
+     * @param maxConnections Número máximo de conexiones simultáneas del pool.
+     * @param pendingAcquireTimeout Tiempo máximo de espera para obtener una conexión del pool.
+     * @param maxIdleTime Tiempo máximo que una conexión puede permanecer ociosa.
+     * @return fábrica de recursos configurada.
+     */
+    @Bean
+    public ReactorResourceFactory outboundResourceFactory(
+            @Value("${legendme-users-svc.pool.max-connections:50}") int maxConnections,
+            @Value("${legendme-users-svc.pool.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${legendme-users-svc.pool.max-idle-time:30s}") Duration maxIdleTime) {
+        ReactorResourceFactory factory = new ReactorResourceFactory();
+        factory.setUseGlobalResources(false);
+        factory.setConnectionProviderSupplier(() -> ConnectionProvider.builder("outbound")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .metrics(true)
+                .build());
+        return factory;
+    }
+
+    /**
+     * Fábrica de peticiones HTTP sobre los recursos de {@link #outboundResourceFactory}.
+     *
+     * @param resourceFactory recursos de Reactor Netty.
+     * @param responseTimeout tiempo máximo de espera de la respuesta.
+     * @return fábrica de peticiones gestionada por el ciclo de vida de Spring.
+     */
+    @Bean
+    public ReactorClientHttpRequestFactory outboundRequestFactory(
+            ReactorResourceFactory resourceFactory,
+            @Value("${legendme-users-svc.response-timeout:5s}") Duration responseTimeout) {
+        return new ReactorClientHttpRequestFactory(resourceFactory, client -> client.responseTimeout(responseTimeout));
+    }
+
     /**
      * Define e inicializa un bean RestClient compartido.
      *
      * Este cliente puede ser utilizado para ejecutar peticiones HTTP
      * a otros servicios REST de manera sencilla y reutilizable.
      *
+     * Parte del {@link RestClient.Builder} de Spring Boot, de modo que usa los mismos conversores
+     * (JSON, y CBOR con los serializadores de los DTOs) que los controladores.
+     *
+     * @param builder constructor de RestClient configurado por Spring Boot.
+     * @param requestFactory fábrica de peticiones HTTP salientes.
      * @return instancia configurada de RestClient.
      */
     @Bean
-    public RestClient restClient() {
-        return RestClient.builder().build();
+    public RestClient restClient(RestClient.Builder builder,
+                                 @Qualifier("outboundRequestFactory") ReactorClientHttpRequestFactory requestFactory) {
+        return builder
+                .requestFactory(requestFactory)
+                .build();
     }
 }
-
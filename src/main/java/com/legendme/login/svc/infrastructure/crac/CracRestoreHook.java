@@ -0,0 +1,64 @@
+package com.legendme.login.svc.infrastructure.crac;
+
+import com.legendme.login.svc.adapters.out.security.GoogleTokenVerifierNimbus;
+import com.legendme.login.svc.adapters.out.security.JwtAuthenticationFilter;
+import com.legendme.login.svc.adapters.out.security.JwtIssuerImpl;
+import com.legendme.login.svc.adapters.out.security.idtoken.IdTokenProperties;
+import com.legendme.login.svc.adapters.out.security.idtoken.MultiIssuerIdTokenVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recurso CRaC que vuelve a resolver los secretos y las claves de Google al restaurar un checkpoint.
+ *
+ * Un checkpoint tomado tras el warm-up congela en memoria los valores de JWT_SECRET y de los client ids
+ * (CLIENT_ID...) con los que se creó la imagen, y las claves JWK descargadas en ese momento. Al restaurar:
+ * 1. Se leen de nuevo app.jwt.secret y app.id-token del {@link Environment} (que resuelve las variables
+ *    de entorno del proceso restaurado).
+ * 2. Se rota la clave de {@link JwtIssuerImpl} y {@link JwtAuthenticationFilter}.
+ * 3. Se reconfiguran los emisores de {@link MultiIssuerIdTokenVerifier}, descartando sus claves JWK para forzar
+ *    una nueva descarga, y se vacía la caché de tokens de {@link GoogleTokenVerifierNimbus}.
+ *
+ * Los sockets del cliente saliente se cierran y reabren por el ciclo de vida de Spring (ver RestClientConfig).
+ * En una JVM sin CRaC el registro no tiene efecto.
+ */
+@Slf4j
+@Component
+public class CracRestoreHook implements Resource {
+    private final Environment environment;
+    private final JwtIssuerImpl jwtIssuer;
+    private final JwtAuthenticationFilter jwtFilter;
+    private final MultiIssuerIdTokenVerifier idTokenVerifier;
+    private final GoogleTokenVerifierNimbus googleVerifier;
+
+    public CracRestoreHook(Environment environment, JwtIssuerImpl jwtIssuer, JwtAuthenticationFilter jwtFilter,
+                           MultiIssuerIdTokenVerifier idTokenVerifier, GoogleTokenVerifierNimbus googleVerifier) {
+        this.environment = environment;
+        this.jwtIssuer = jwtIssuer;
+        this.jwtFilter = jwtFilter;
+        this.idTokenVerifier = idTokenVerifier;
+        this.googleVerifier = googleVerifier;
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        log.info("Preparando checkpoint CRaC");
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        String secret = environment.getRequiredProperty("app.jwt.secret");
+        jwtIssuer.rotateSecret(secret);
+        jwtFilter.rotateSecret(secret);
+        IdTokenProperties idTokens = Binder.get(environment).bindOrCreate("app.id-token", IdTokenProperties.class);
+        idTokenVerifier.configure(idTokens);
+        googleVerifier.reload(idTokens);
+        log.info("Checkpoint CRaC restaurado; secretos y claves JWK recargados");
+    }
+}
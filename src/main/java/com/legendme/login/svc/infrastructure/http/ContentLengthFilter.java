@@ -0,0 +1,43 @@
+package com.legendme.login.svc.infrastructure.http;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Acumula el cuerpo de las respuestas de la API ({@code /legendme/**}) para enviarlas con Content-Length.
+ *
+ * Los conversores de Jackson escriben sin Content-Length, y Tomcat comprime toda respuesta de longitud desconocida
+ * aunque sea menor que server.compression.min-response-size. Con la longitud conocida, las respuestas pequeñas
+ * (tokens, errores) se envían sin gzip y el umbral se aplica como está configurado. Los cuerpos de la API son de
+ * unos cientos de bytes, así que la copia adicional es despreciable; el resto de rutas no se modifica.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ContentLengthFilter extends OncePerRequestFilter {
+    private static final String API_PATH = "/legendme/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
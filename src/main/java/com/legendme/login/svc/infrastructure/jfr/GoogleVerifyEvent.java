@@ -0,0 +1,29 @@
+package com.legendme.login.svc.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido por cada verificación de un ID token de Google.
+ * Deshabilitado por defecto; se activa con una grabación que lo habilite (ver {@link JfrRecordingConfig}).
+ */
+@Name("legendme.login.GoogleVerify")
+@Label("Google Token Verify")
+@Category({"LegendMe", "Login"})
+@Description("Verificación de firma y claims del ID token de Google")
+@Enabled(false)
+@StackTrace(false)
+public class GoogleVerifyEvent extends Event {
+
+    @Label("Key Id")
+    public String kid;
+
+    @Label("Outcome")
+    @Description("OK o el código de error emitido")
+    public String outcome;
+}
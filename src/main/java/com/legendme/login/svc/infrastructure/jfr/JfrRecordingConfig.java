@@ -0,0 +1,132 @@
+package com.legendme.login.svc.infrastructure.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gestiona las grabaciones de Java Flight Recorder con los eventos propios del login.
+ *
+ * Los eventos ({@link GoogleVerifyEvent}, {@link UsersSvcUpsertEvent}, {@link JwtMintEvent},
+ * {@link JwtFilterEvent}) están deshabilitados por defecto, por lo que su coste es prácticamente nulo
+ * mientras no exista una grabación que los active.
+ *
+ * Modos de uso:
+ * 1. app.jfr.enabled=true: al arrancar se inicia una grabación continua con la configuración
+ *    "default" del JDK más los eventos del login, acotada por app.jfr.max-age y app.jfr.max-size.
+ * 2. Bajo demanda: {@link #recordTo(Duration)} (operación JMX del endpoint "jfr") graba durante un tiempo
+ *    acotado por app.jfr.max-duration con la configuración "profile" y deja el volcado en app.jfr.dump-dir.
+ *
+ * Las grabaciones nunca incluyen las variables de entorno ni las propiedades de sistema del proceso
+ * (jdk.InitialEnvironmentVariable, jdk.InitialSystemProperty), que contienen JWT_SECRET y el resto de secretos.
+ *
+ * Los umbrales (app.jfr.thresholds.*) evitan registrar las ejecuciones más rápidas que el valor indicado.
+ */
+@Slf4j
+@Component
+public class JfrRecordingConfig implements AutoCloseable {
+
+    private static final Map<String, String> REDACTED = Map.of(
+            "jdk.InitialEnvironmentVariable#enabled", "false",
+            "jdk.InitialSystemProperty#enabled", "false");
+
+    private final Map<String, String> eventSettings;
+    private final Path dumpDir;
+    private final Duration maxDuration;
+    private final long maxSize;
+    private final AtomicBoolean onDemandRunning = new AtomicBoolean();
+    private final Recording continuous;
+
+    public JfrRecordingConfig(
+            @Value("${app.jfr.enabled:false}") boolean enabled,
+            @Value("${app.jfr.max-age:15m}") Duration maxAge,
+            @Value("${app.jfr.max-size:104857600}") long maxSize,
+            @Value("${app.jfr.max-duration:60s}") Duration maxDuration,
+            @Value("${app.jfr.dump-dir:${java.io.tmpdir}}") Path dumpDir,
+            @Value("${app.jfr.thresholds.verify:0 ms}") String verifyThreshold,
+            @Value("${app.jfr.thresholds.upsert:0 ms}") String upsertThreshold,
+            @Value("${app.jfr.thresholds.mint:0 ms}") String mintThreshold,
+            @Value("${app.jfr.thresholds.filter:0 ms}") String filterThreshold) throws IOException, ParseException {
+        this.maxDuration = maxDuration;
+        this.dumpDir = dumpDir;
+        this.maxSize = maxSize;
+
+        Map<String, String> settings = new HashMap<>();
+        enable(settings, GoogleVerifyEvent.class, verifyThreshold);
+        enable(settings, UsersSvcUpsertEvent.class, upsertThreshold);
+        enable(settings, JwtMintEvent.class, mintThreshold);
+        enable(settings, JwtFilterEvent.class, filterThreshold);
+        this.eventSettings = Map.copyOf(settings);
+
+        if (enabled) {
+            this.continuous = newRecording("default");
+            continuous.setName("legendme-login-continuous");
+            continuous.setToDisk(true);
+            continuous.setMaxAge(maxAge);
+            continuous.setMaxSize(maxSize);
+            continuous.start();
+            log.info("Grabación JFR continua iniciada, maxAge: {}, maxSize: {}", maxAge, maxSize);
+        } else {
+            this.continuous = null;
+        }
+    }
+
+    /**
+     * Realiza una grabación acotada y la vuelca en un fichero .jfr de app.jfr.dump-dir.
+     * Solo se permite una grabación bajo demanda a la vez.
+     *
+     * @param requested Duración solicitada; se limita a app.jfr.max-duration.
+     * @return La ruta del volcado JFR.
+     * @throws IllegalStateException si ya hay una grabación bajo demanda en curso.
+     */
+    public Path recordTo(Duration requested) throws IOException, ParseException, InterruptedException {
+        if (!onDemandRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya existe una grabación JFR en curso");
+        }
+        Duration duration = requested == null || requested.compareTo(maxDuration) > 0 ? maxDuration : requested;
+        try (Recording recording = newRecording("profile")) {
+            Files.createDirectories(dumpDir);
+            Path file = Files.createTempFile(dumpDir, "legendme-login-", ".jfr");
+            recording.setName("legendme-login-on-demand");
+            recording.setMaxSize(maxSize);
+            recording.start();
+            Thread.sleep(duration.toMillis());
+            recording.stop();
+            recording.dump(file);
+            return file;
+        } finally {
+            onDemandRunning.set(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    private Recording newRecording(String baseConfiguration) throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(baseConfiguration).getSettings());
+        settings.putAll(eventSettings);
+        settings.putAll(REDACTED);
+        return new Recording(settings);
+    }
+
+    private static void enable(Map<String, String> settings, Class<?> event, String threshold) {
+        String name = event.getAnnotation(jdk.jfr.Name.class).value();
+        settings.put(name + "#enabled", "true");
+        settings.put(name + "#threshold", threshold);
+    }
+}
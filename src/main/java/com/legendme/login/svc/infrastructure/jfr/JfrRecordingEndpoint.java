@@ -0,0 +1,35 @@
+package com.legendme.login.svc.infrastructure.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Endpoint de Actuator "jfr", expuesto solo por JMX (nunca por HTTP), que realiza una grabación JFR acotada
+ * bajo demanda y devuelve la ruta del fichero .jfr resultante en app.jfr.dump-dir.
+ *
+ * Requiere JMX_ENABLED=true; se invoca desde jconsole/jmxterm (org.springframework.boot:type=Endpoint,name=Jfr)
+ * y el volcado se recoge del contenedor, por ejemplo con {@code kubectl cp}.
+ */
+@Component
+@JmxEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrRecordingEndpoint {
+    private final JfrRecordingConfig recordings;
+
+    /**
+     * Graba durante los segundos indicados (limitado por app.jfr.max-duration).
+     *
+     * @param seconds Duración de la grabación en segundos; si es nula se usa el máximo configurado.
+     * @return La ruta absoluta del volcado JFR.
+     */
+    @WriteOperation
+    public String record(@Nullable Integer seconds) throws Exception {
+        Duration duration = seconds != null && seconds > 0 ? Duration.ofSeconds(seconds) : null;
+        return recordings.recordTo(duration).toAbsolutePath().toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.legendme.login.svc.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido por cada verificación de JWT en el filtro de autenticación.
+ * Deshabilitado por defecto; se activa con una grabación que lo habilite (ver {@link JfrRecordingConfig}).
+ */
+@Name("legendme.login.JwtFilter")
+@Label("JWT Filter Verify")
+@Category({"LegendMe", "Login"})
+@Description("Verificación del JWT propio en JwtAuthenticationFilter")
+@Enabled(false)
+@StackTrace(false)
+public class JwtFilterEvent extends Event {
+
+    @Label("Outcome")
+    @Description("OK o INVALID")
+    public String outcome;
+}
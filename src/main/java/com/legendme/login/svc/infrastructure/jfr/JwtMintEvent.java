@@ -0,0 +1,26 @@
+package com.legendme.login.svc.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido por cada firma del par de tokens (acceso y actualización).
+ * Deshabilitado por defecto; se activa con una grabación que lo habilite (ver {@link JfrRecordingConfig}).
+ */
+@Name("legendme.login.JwtMint")
+@Label("JWT Mint")
+@Category({"LegendMe", "Login"})
+@Description("Firma del par de tokens JWT propios")
+@Enabled(false)
+@StackTrace(false)
+public class JwtMintEvent extends Event {
+
+    @Label("Outcome")
+    @Description("OK o el código de error emitido")
+    public String outcome;
+}
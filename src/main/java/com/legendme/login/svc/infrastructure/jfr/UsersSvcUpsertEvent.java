@@ -0,0 +1,30 @@
+package com.legendme.login.svc.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emitido por cada upsert contra legendme-users-svc.
+ * Deshabilitado por defecto; se activa con una grabación que lo habilite (ver {@link JfrRecordingConfig}).
+ */
+@Name("legendme.login.UsersSvcUpsert")
+@Label("Users-svc Upsert")
+@Category({"LegendMe", "Login"})
+@Description("Llamada HTTP de upsert al servicio de usuarios")
+@Enabled(false)
+@StackTrace(false)
+public class UsersSvcUpsertEvent extends Event {
+
+    @Label("HTTP Status")
+    @Description("Código HTTP devuelto por users-svc, 0 si no hubo respuesta")
+    public int status;
+
+    @Label("Outcome")
+    @Description("OK o el código de error emitido")
+    public String outcome;
+}
@@ -0,0 +1,214 @@
+package com.legendme.login.svc.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas del pipeline de login expuestas vía Micrometer (endpoint /actuator/prometheus).
+ *
+ * Todos los medidores se registran una sola vez en el constructor y se guardan en campos,
+ * de modo que en el camino caliente solo se hace un {@code record()} o {@code increment()}
+ * sin búsquedas en el registro ni creación de tags.
+ *
+ * Medidores:
+ * - login.stage.duration{stage=verify|upsert|mint|filter}: histograma de latencia por etapa.
+ * - login.errors{code=G-LOG-01..09}: errores emitidos por código.
+ * - login.rejected{reason}: peticiones rechazadas antes de llegar al controlador.
+ * - login.peer.lookups{result=local|owner|owner_error|fallback}: consultas de usuario en el anillo de réplicas.
+ * - login.cache.requests{cache,result=l1_hit|l2_hit|miss}: lecturas de las cachés de dos niveles.
+ * - Gauges registrados por otros componentes mediante {@link #gauge(String, String, Supplier)}.
+ */
+@Component
+public class LoginMetrics {
+
+    public static final String STAGE_VERIFY = "verify";
+    public static final String STAGE_UPSERT = "upsert";
+    public static final String STAGE_MINT = "mint";
+    public static final String STAGE_FILTER = "filter";
+
+    private static final String[] ERROR_CODES = {
+            "G-LOG-01", "G-LOG-02", "G-LOG-03", "G-LOG-04", "G-LOG-05",
+            "G-LOG-06", "G-LOG-07", "G-LOG-08", "G-LOG-09", "G-LOG-10",
+            "G-LOG-11", "G-LOG-12", "G-LOG-13"
+    };
+
+    private final MeterRegistry registry;
+    private final Timer verify;
+    private final Timer upsert;
+    private final Timer mint;
+    private final Timer filter;
+    private final Map<String, Counter> errors = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final Map<String, Counter> peerLookups = new ConcurrentHashMap<>();
+
+    public LoginMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.verify = stageTimer(STAGE_VERIFY);
+        this.upsert = stageTimer(STAGE_UPSERT);
+        this.mint = stageTimer(STAGE_MINT);
+        this.filter = stageTimer(STAGE_FILTER);
+        for (String code : ERROR_CODES) {
+            errors.put(code, errorCounter(code));
+        }
+    }
+
+    /**
+     * Registra la duración de la verificación del token de Google.
+     *
+     * @param startNanos Valor de {@link System#nanoTime()} tomado al inicio de la etapa.
+     */
+    public void recordVerify(long startNanos) {
+        verify.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración del upsert contra legendme-users-svc.
+     *
+     * @param startNanos Valor de {@link System#nanoTime()} tomado al inicio de la etapa.
+     */
+    public void recordUpsert(long startNanos) {
+        upsert.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración de la firma del par de tokens JWT.
+     *
+     * @param startNanos Valor de {@link System#nanoTime()} tomado al inicio de la etapa.
+     */
+    public void recordMint(long startNanos) {
+        mint.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración de la verificación del JWT propio en el filtro de autenticación.
+     *
+     * @param startNanos Valor de {@link System#nanoTime()} tomado al inicio de la etapa.
+     */
+    public void recordFilter(long startNanos) {
+        filter.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Incrementa el contador del código de error indicado.
+     * Los códigos desconocidos se registran bajo demanda.
+     *
+     * @param code El código de error (por ejemplo G-LOG-04).
+     */
+    public void error(String code) {
+        if (code == null) {
+            return;
+        }
+        errors.computeIfAbsent(code, this::errorCounter).increment();
+    }
+
+    /**
+     * Incrementa el contador de peticiones rechazadas por el motivo indicado.
+     *
+     * @param reason Motivo del rechazo (por ejemplo rate_limit_ip).
+     */
+    public void rejected(String reason) {
+        rejections.computeIfAbsent(reason, this::rejectionCounter).increment();
+    }
+
+    /**
+     * Incrementa el contador de consultas de usuario en el anillo de réplicas.
+     *
+     * @param result Dónde se resolvió la consulta (local, owner, owner_error o fallback).
+     */
+    public void peerLookup(String result) {
+        peerLookups.computeIfAbsent(result, r -> Counter.builder("login.peer.lookups")
+                .description("Consultas de usuario en el anillo de réplicas")
+                .tag("result", r)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Registra el contador de lecturas de una caché para el resultado indicado.
+     * El llamador guarda el contador devuelto para no consultar el registro en cada lectura.
+     *
+     * @param cache  Nombre de la caché.
+     * @param result Resultado de la lectura (l1_hit, l2_hit o miss).
+     * @return El contador.
+     */
+    public Counter cacheRequests(String cache, String result) {
+        return Counter.builder("login.cache.requests")
+                .description("Lecturas de las cachés de dos niveles por resultado")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Registra el contador de peticiones con Idempotency-Key para el resultado indicado.
+     * El llamador guarda el contador devuelto para no consultar el registro en cada petición.
+     *
+     * @param result Resultado (executed, replayed, mismatch o timeout).
+     * @return El contador.
+     */
+    public Counter idempotencyRequests(String result) {
+        return Counter.builder("login.idempotency.requests")
+                .description("Peticiones de login con Idempotency-Key por resultado")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Registra el contador de eventos de auditoría para el resultado indicado.
+     * El llamador guarda el contador devuelto para no consultar el registro en cada evento.
+     *
+     * @param outcome Destino del evento (written o dropped).
+     * @return El contador.
+     */
+    public Counter auditEvents(String outcome) {
+        return Counter.builder("login.audit.events")
+                .description("Eventos de auditoría de login escritos o descartados")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Registra un gauge cuyo valor se lee del proveedor indicado en cada scrape.
+     *
+     * @param name        Nombre de la métrica.
+     * @param description Descripción de la métrica.
+     * @param value       Proveedor del valor actual.
+     */
+    public void gauge(String name, String description, Supplier<Number> value) {
+        Gauge.builder(name, value)
+                .description(description)
+                .register(registry);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("login.stage.duration")
+                .description("Latencia de cada etapa del login")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("login.rejected")
+                .description("Peticiones rechazadas antes de llegar al controlador")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private Counter errorCounter(String code) {
+        return Counter.builder("login.errors")
+                .description("Errores de login por código")
+                .tag("code", code)
+                .register(registry);
+    }
+}
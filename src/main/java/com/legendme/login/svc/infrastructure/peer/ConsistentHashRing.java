@@ -0,0 +1,90 @@
+package com.legendme.login.svc.infrastructure.peer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Anillo de hashing consistente inmutable que asigna cada clave a un miembro.
+ *
+ * Cada miembro ocupa {@code virtualNodes} posiciones del anillo; la clave pertenece al primer nodo virtual
+ * cuyo hash es mayor o igual que el suyo. Al añadir o quitar un miembro solo cambian de dueño las claves de
+ * los tramos afectados (aproximadamente 1/N del total), y los nodos virtuales reparten la carga de forma
+ * homogénea entre los miembros.
+ *
+ * Las posiciones se guardan en arrays ordenados; {@link #owner(String)} es una búsqueda binaria sin reservas
+ * de memoria más allá del hash de la clave.
+ */
+public final class ConsistentHashRing {
+    private final long[] points;
+    private final String[] owners;
+    private final List<String> members;
+
+    /**
+     * @param members      Miembros del anillo (por ejemplo, URLs base de cada réplica).
+     * @param virtualNodes Número de posiciones de cada miembro.
+     */
+    public ConsistentHashRing(List<String> members, int virtualNodes) {
+        this.members = List.copyOf(members);
+        int size = this.members.size() * virtualNodes;
+        long[] hashes = new long[size];
+        String[] names = new String[size];
+        Integer[] order = new Integer[size];
+        int i = 0;
+        for (String member : this.members) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[i] = hash(member + '#' + v);
+                names[i] = member;
+                order[i] = i;
+                i++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int j = 0; j < size; j++) {
+            points[j] = hashes[order[j]];
+            owners[j] = names[order[j]];
+        }
+    }
+
+    /**
+     * @param key La clave.
+     * @return El miembro dueño de la clave, o {@code null} si el anillo está vacío.
+     */
+    public String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * @return Los miembros del anillo.
+     */
+    public List<String> members() {
+        return members;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los bytes UTF-8, con la mezcla final de MurmurHash3 para repartir mejor
+     * claves que solo difieren en los últimos caracteres.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
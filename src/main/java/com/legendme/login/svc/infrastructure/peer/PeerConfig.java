@@ -0,0 +1,56 @@
+package com.legendme.login.svc.infrastructure.peer;
+
+import org.apache.catalina.connector.Connector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.ReactorResourceFactory;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la comunicación entre réplicas del anillo de usuarios.
+ *
+ * Con app.peer.enabled=true, Tomcat abre un segundo conector en app.peer.port; {@code /internal/peer/users} solo se
+ * atiende por ese conector, que no debe publicarse fuera de la red de las réplicas.
+ *
+ * Comparte el pool de conexiones salientes (ver RestClientConfig) con un timeout propio que, por defecto, es el de
+ * legendme-users-svc: la réplica dueña puede estar esperando al servicio y un timeout menor haría que el error
+ * se viera antes aquí que en la dueña.
+ */
+@Configuration
+public class PeerConfig {
+
+    /**
+     * @param resourceFactory recursos de Reactor Netty del cliente saliente.
+     * @param timeout tiempo máximo de espera de la respuesta de la réplica dueña.
+     * @return fábrica de peticiones hacia otras réplicas.
+     */
+    @Bean
+    public ReactorClientHttpRequestFactory peerRequestFactory(
+            ReactorResourceFactory resourceFactory,
+            @Value("${app.peer.timeout:${legendme-users-svc.response-timeout:5s}}") Duration timeout) {
+        return new ReactorClientHttpRequestFactory(resourceFactory, client -> client.responseTimeout(timeout));
+    }
+
+    /**
+     * @param enabled app.peer.enabled, evaluado al arrancar (también en la imagen AOT).
+     * @param port puerto del conector interno entre réplicas.
+     * @return personalizador que añade el conector interno si el anillo está activado.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> peerConnectorCustomizer(
+            @Value("${app.peer.enabled:false}") boolean enabled,
+            @Value("${app.peer.port:8081}") int port) {
+        return factory -> {
+            if (enabled) {
+                Connector connector = new Connector(TomcatServletWebServerFactory.DEFAULT_PROTOCOL);
+                connector.setPort(port);
+                factory.addAdditionalTomcatConnectors(connector);
+            }
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package com.legendme.login.svc.infrastructure.peer;
+
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Miembros del anillo de réplicas y su {@link ConsistentHashRing}.
+ *
+ * Origen de los miembros:
+ * - app.peer.members: lista estática de URLs base ({@code http://login-0:8081,http://login-1:8081}).
+ * - app.peer.dns-name: nombre DNS que resuelve a las IPs de todas las réplicas (por ejemplo, un Service headless
+ *   de Kubernetes); cada IP se convierte en {@code http://<ip>:<app.peer.port>}.
+ *
+ * La lista se vuelve a resolver cada app.peer.refresh-interval y el anillo solo se sustituye si cambia. Los miembros
+ * se ordenan para que todas las réplicas construyan el mismo anillo. Si una resolución falla se conserva el anillo
+ * anterior.
+ *
+ * La réplica local es app.peer.self si está definido; si no, el miembro cuyo host es una dirección de una interfaz
+ * local y cuyo puerto coincide con app.peer.port.
+ *
+ * El bean existe siempre y app.peer.enabled se evalúa al arrancar (con AOT las condiciones se fijan en el build):
+ * desactivado, el anillo queda vacío y no se resuelven miembros.
+ */
+@Slf4j
+@Component
+public class PeerMembership implements AutoCloseable {
+    private final boolean enabled;
+    private final List<String> staticMembers;
+    private final String dnsName;
+    private final int port;
+    private final int virtualNodes;
+    private final String configuredSelf;
+    private final ScheduledExecutorService refresher;
+
+    private volatile View view;
+
+    public PeerMembership(
+            @Value("${app.peer.enabled:false}") boolean enabled,
+            @Value("${app.peer.members:}") List<String> staticMembers,
+            @Value("${app.peer.dns-name:}") String dnsName,
+            @Value("${app.peer.port:8081}") int port,
+            @Value("${app.peer.virtual-nodes:160}") int virtualNodes,
+            @Value("${app.peer.self:}") String configuredSelf,
+            @Value("${app.peer.refresh-interval:10s}") Duration refreshInterval,
+            LoginMetrics metrics) {
+        this.enabled = enabled;
+        this.staticMembers = staticMembers.stream().map(String::trim).filter(m -> !m.isEmpty()).toList();
+        this.dnsName = dnsName;
+        this.port = port;
+        this.virtualNodes = virtualNodes;
+        this.configuredSelf = configuredSelf;
+        this.view = new View(new ConsistentHashRing(List.of(), virtualNodes), null);
+        if (!enabled) {
+            this.refresher = null;
+            return;
+        }
+        refresh();
+        metrics.gauge("login.peer.members", "Réplicas en el anillo de usuarios", () -> view.ring().members().size());
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "peer-membership");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return {@code true} si el anillo de réplicas está activado (app.peer.enabled).
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Puerto del conector interno por el que las réplicas se consultan entre sí.
+     */
+    public int port() {
+        return port;
+    }
+
+    /**
+     * El anillo y la réplica local se publican juntos: quien consulte el dueño de un sub y si es esta réplica
+     * debe usar una misma vista para no mezclar el anillo nuevo con la réplica local del anterior.
+     *
+     * @return La vista vigente (con el anillo vacío si está desactivado).
+     */
+    public View view() {
+        return view;
+    }
+
+    void refresh() {
+        try {
+            List<String> members = new ArrayList<>(resolve());
+            members.sort(null);
+            if (members.equals(view.ring().members())) {
+                return;
+            }
+            String local = configuredSelf.isBlank() ? findSelf(members) : configuredSelf;
+            view = new View(new ConsistentHashRing(members, virtualNodes), local);
+            log.info("Anillo de réplicas actualizado: {} miembros, local={}", members.size(), local);
+        } catch (Exception e) {
+            log.warn("No se pudieron resolver las réplicas del anillo: {}", e.toString());
+        }
+    }
+
+    private List<String> resolve() throws Exception {
+        if (dnsName.isBlank()) {
+            return staticMembers;
+        }
+        return Arrays.stream(InetAddress.getAllByName(dnsName))
+                .map(address -> "http://" + address.getHostAddress() + ":" + port)
+                .distinct()
+                .toList();
+    }
+
+    private String findSelf(List<String> members) {
+        for (String member : members) {
+            try {
+                URI uri = URI.create(member);
+                int memberPort = uri.getPort() == -1 ? 80 : uri.getPort();
+                if (memberPort == port
+                        && NetworkInterface.getByInetAddress(InetAddress.getByName(uri.getHost())) != null) {
+                    return member;
+                }
+            } catch (Exception e) {
+                log.debug("No se pudo comprobar si {} es la réplica local: {}", member, e.toString());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Anillo de réplicas y miembro que corresponde a esta réplica.
+     *
+     * @param ring Anillo de hashing consistente.
+     * @param self Miembro local, o {@code null} si no se ha identificado.
+     */
+    public record View(ConsistentHashRing ring, String self) {
+
+        /**
+         * @param member Un miembro del anillo.
+         * @return {@code true} si el miembro es esta réplica.
+         */
+        public boolean isSelf(String member) {
+            return member != null && member.equals(self);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+}
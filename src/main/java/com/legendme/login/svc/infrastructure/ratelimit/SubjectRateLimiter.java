@@ -0,0 +1,47 @@
+package com.legendme.login.svc.infrastructure.ratelimit;
+
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.exceptions.RateLimitedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rate limiting de logins por sub del proveedor (app.rate-limit.sub.*).
+ *
+ * Solo se carga con subs cuya firma ya se ha verificado: si se usara el sub sin verificar del idToken, cualquiera
+ * podría agotar el bucket de otro usuario con tokens falsos y dejarlo sin poder iniciar sesión.
+ */
+@Component
+public class SubjectRateLimiter {
+    private final boolean enabled;
+    private final TokenBucketTable buckets;
+    private final LoginMetrics metrics;
+
+    public SubjectRateLimiter(
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.slots:65536}") int slots,
+            @Value("${app.rate-limit.sub.capacity:5}") int capacity,
+            @Value("${app.rate-limit.sub.refill-per-second:0.5}") double refill,
+            LoginMetrics metrics) {
+        this.enabled = enabled;
+        this.buckets = new TokenBucketTable(slots, capacity, refill);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Consume un token del bucket del sub.
+     *
+     * @param sub Sub verificado del idToken.
+     * @throws RateLimitedException si el bucket está vacío.
+     */
+    public void acquire(String sub) {
+        if (!enabled || sub == null) {
+            return;
+        }
+        long retryAfter = buckets.tryAcquire(sub);
+        if (retryAfter > 0) {
+            metrics.rejected("rate_limit_sub");
+            throw new RateLimitedException(retryAfter);
+        }
+    }
+}
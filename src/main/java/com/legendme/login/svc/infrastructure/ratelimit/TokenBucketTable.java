@@ -0,0 +1,106 @@
+package com.legendme.login.svc.infrastructure.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Tabla de token buckets de memoria fija y sin locks.
+ *
+ * Cada clave se asigna por hash a una de {@code slots} posiciones de un {@link AtomicLongArray};
+ * la memoria es constante (8 bytes por slot) independientemente del número de clientes distintos,
+ * y no hay estructuras que crezcan ni que haya que expirar. Como en un count-min sketch, dos claves
+ * que colisionan comparten bucket: el efecto es conservador (se limita antes, nunca después).
+ *
+ * Cada slot empaqueta en un {@code long}:
+ * - 44 bits altos: instante de la última recarga, en milisegundos desde la creación de la tabla.
+ * - 20 bits bajos: déficit de tokens en milésimas (0 = bucket lleno).
+ *
+ * Guardar el déficit en lugar de los tokens disponibles hace que un slot a 0 represente un bucket lleno,
+ * por lo que no hace falta inicializar la tabla. Las actualizaciones se hacen con CAS.
+ */
+public class TokenBucketTable {
+
+    private static final int DEFICIT_BITS = 20;
+    private static final long DEFICIT_MASK = (1L << DEFICIT_BITS) - 1;
+    private static final long MILLI = 1_000;
+
+    private final AtomicLongArray state;
+    private final int mask;
+    private final long capacityMilli;
+    private final double refillMilliPerMs;
+    private final LongSupplier clockMillis;
+
+    /**
+     * @param slots            Número de slots; se redondea a la siguiente potencia de dos.
+     * @param capacity         Capacidad del bucket en tokens (ráfaga máxima), entre 1 y 1000.
+     * @param refillPerSecond  Tokens recargados por segundo.
+     */
+    public TokenBucketTable(int slots, int capacity, double refillPerSecond) {
+        this(slots, capacity, refillPerSecond, monotonicMillis());
+    }
+
+    /**
+     * @param clockMillis Reloj monótono en milisegundos, que empieza en 0 o poco más.
+     */
+    TokenBucketTable(int slots, int capacity, double refillPerSecond, LongSupplier clockMillis) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("slots debe ser positivo");
+        }
+        if (capacity < 1 || capacity * MILLI > DEFICIT_MASK) {
+            throw new IllegalArgumentException("capacity debe estar entre 1 y " + (DEFICIT_MASK / MILLI));
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("refillPerSecond debe ser positivo");
+        }
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.state = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.capacityMilli = capacity * MILLI;
+        // tokens/s equivale a milésimas de token por milisegundo.
+        this.refillMilliPerMs = refillPerSecond;
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * Intenta consumir un token del bucket asociado a la clave.
+     *
+     * @param key La clave (IP, sub...).
+     * @return 0 si se consumió el token; en otro caso, los milisegundos estimados hasta que haya uno disponible.
+     */
+    public long tryAcquire(String key) {
+        int slot = index(key);
+        long now = clockMillis.getAsLong();
+        while (true) {
+            long current = state.get(slot);
+            long last = current >>> DEFICIT_BITS;
+            long deficit = current & DEFICIT_MASK;
+
+            long elapsed = Math.max(0, now - last);
+            long refilled = (long) (elapsed * refillMilliPerMs);
+            long remaining = Math.max(0, deficit - refilled);
+            // Si la recarga aún no llega a una milésima de token se conserva el instante anterior
+            // para no perder el tiempo acumulado con tasas bajas.
+            long stamp = refilled > 0 || deficit == 0 ? now : last;
+
+            long next = remaining + MILLI;
+            if (next > capacityMilli) {
+                return Math.max(1, (long) Math.ceil((next - capacityMilli) / refillMilliPerMs));
+            }
+            if (state.compareAndSet(slot, current, (stamp << DEFICIT_BITS) | next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int index(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x9E3779B1;
+        return (h ^ (h >>> 15)) & mask;
+    }
+
+    private static LongSupplier monotonicMillis() {
+        long baseNanos = System.nanoTime();
+        return () -> (System.nanoTime() - baseNanos) / 1_000_000;
+    }
+}
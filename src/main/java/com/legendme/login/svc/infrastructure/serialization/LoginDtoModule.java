@@ -0,0 +1,269 @@
+package com.legendme.login.svc.infrastructure.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.legendme.login.svc.adapters.out.http.dto.UserRequest;
+import com.legendme.login.svc.adapters.out.http.dto.UserResponse;
+import com.legendme.login.svc.application.port.in.AuthController.AuthResponse;
+import com.legendme.login.svc.application.port.in.AuthController.GoogleSignInRequest;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Módulo de Jackson con serializadores escritos a mano para los DTOs del camino de login.
+ *
+ * Sustituyen a los BeanSerializer/BeanDeserializer que Jackson construye por reflexión: cada DTO se escribe y se
+ * lee con llamadas directas al {@link JsonGenerator}/{@link JsonParser}, con los nombres de campo pre-codificados
+ * ({@link SerializedString}). Los buffers de lectura y escritura son los que Jackson recicla por hilo
+ * ({@code BufferRecycler}), sin copias intermedias.
+ *
+ * Al trabajar sobre la API de streaming, los mismos serializadores sirven para JSON y para CBOR, pero solo se
+ * registran en el mapper CBOR: con JSON no mejoran a databind ({@code SerializationBenchmark}), con CBOR sí.
+ * El formato resultante es el mismo que el de databind: todos los campos, con null explícito, y las fechas
+ * según la configuración del ObjectMapper. En lectura se ignoran los campos desconocidos.
+ *
+ * DTOs cubiertos:
+ * - {@link AuthResponse} (escritura) y {@link GoogleSignInRequest} (lectura): endpoint de login.
+ * - {@link UserRequest} (escritura) y {@link UserResponse} (lectura y escritura): enlace con legendme-users-svc
+ *   y endpoint interno entre réplicas.
+ */
+public class LoginDtoModule extends SimpleModule {
+
+    private static final SerializableString ACCESS_TOKEN = new SerializedString("accessToken");
+    private static final SerializableString REFRESH_TOKEN = new SerializedString("refreshToken");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString LASTNAME = new SerializedString("lastname");
+    private static final SerializableString BIRTH_DATE = new SerializedString("birthDate");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString PASSWORD = new SerializedString("password");
+    private static final SerializableString PROVIDER = new SerializedString("provider");
+    private static final SerializableString ACTIVE = new SerializedString("active");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+
+    public LoginDtoModule() {
+        super("LoginDtoModule");
+        addSerializer(AuthResponse.class, new AuthResponseSerializer());
+        addDeserializer(GoogleSignInRequest.class, new GoogleSignInRequestDeserializer());
+        addSerializer(UserRequest.class, new UserRequestSerializer());
+        addSerializer(UserResponse.class, new UserResponseSerializer());
+        addDeserializer(UserResponse.class, new UserResponseDeserializer());
+    }
+
+    static final class AuthResponseSerializer extends StdSerializer<AuthResponse> {
+        AuthResponseSerializer() {
+            super(AuthResponse.class);
+        }
+
+        @Override
+        public void serialize(AuthResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value, 5);
+            writeString(gen, ACCESS_TOKEN, value.accessToken());
+            writeString(gen, REFRESH_TOKEN, value.refreshToken());
+            writeUuid(gen, USER_ID, value.userId());
+            writeString(gen, EMAIL, value.email());
+            writeString(gen, NAME, value.name());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class GoogleSignInRequestDeserializer extends StdDeserializer<GoogleSignInRequest> {
+        GoogleSignInRequestDeserializer() {
+            super(GoogleSignInRequest.class);
+        }
+
+        @Override
+        public GoogleSignInRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String idToken = null;
+            for (String field = firstField(p, ctxt, GoogleSignInRequest.class); field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if ("idToken".equals(field)) {
+                    idToken = token == JsonToken.VALUE_NULL ? null : readString(p, ctxt);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return new GoogleSignInRequest(idToken);
+        }
+    }
+
+    static final class UserRequestSerializer extends StdSerializer<UserRequest> {
+        UserRequestSerializer() {
+            super(UserRequest.class);
+        }
+
+        @Override
+        public void serialize(UserRequest value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value, 7);
+            writeString(gen, NAME, value.name());
+            writeString(gen, LASTNAME, value.lastname());
+            writeDate(gen, provider, BIRTH_DATE, value.birthDate());
+            writeString(gen, USERNAME, value.username());
+            writeString(gen, EMAIL, value.email());
+            writeString(gen, PASSWORD, value.password());
+            writeString(gen, PROVIDER, value.provider());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class UserResponseSerializer extends StdSerializer<UserResponse> {
+        UserResponseSerializer() {
+            super(UserResponse.class);
+        }
+
+        @Override
+        public void serialize(UserResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value, 10);
+            writeUuid(gen, ID, value.id());
+            writeString(gen, NAME, value.name());
+            writeString(gen, LASTNAME, value.lastname());
+            writeDate(gen, provider, BIRTH_DATE, value.birthDate());
+            writeString(gen, USERNAME, value.username());
+            writeString(gen, EMAIL, value.email());
+            writeString(gen, PROVIDER, value.provider());
+            gen.writeFieldName(ACTIVE);
+            gen.writeBoolean(value.active());
+            writeDate(gen, provider, CREATED_AT, value.createdAt());
+            writeDate(gen, provider, UPDATED_AT, value.updatedAt());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class UserResponseDeserializer extends StdDeserializer<UserResponse> implements ResolvableDeserializer {
+        private JsonDeserializer<Object> dates;
+
+        UserResponseDeserializer() {
+            super(UserResponse.class);
+        }
+
+        @Override
+        public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+            dates = ctxt.findRootValueDeserializer(ctxt.constructType(Date.class));
+        }
+
+        @Override
+        public UserResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            UUID id = null;
+            String name = null;
+            String lastname = null;
+            Date birthDate = null;
+            String username = null;
+            String email = null;
+            String provider = null;
+            boolean active = false;
+            Date createdAt = null;
+            Date updatedAt = null;
+            for (String field = firstField(p, ctxt, UserResponse.class); field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "id" -> id = readUuid(p, ctxt);
+                    case "name" -> name = readString(p, ctxt);
+                    case "lastname" -> lastname = readString(p, ctxt);
+                    case "birthDate" -> birthDate = (Date) dates.deserialize(p, ctxt);
+                    case "username" -> username = readString(p, ctxt);
+                    case "email" -> email = readString(p, ctxt);
+                    case "provider" -> provider = readString(p, ctxt);
+                    case "active" -> active = readBoolean(p, ctxt);
+                    case "createdAt" -> createdAt = (Date) dates.deserialize(p, ctxt);
+                    case "updatedAt" -> updatedAt = (Date) dates.deserialize(p, ctxt);
+                    default -> p.skipChildren();
+                }
+            }
+            return new UserResponse(id, name, lastname, birthDate, username, email, provider, active, createdAt, updatedAt);
+        }
+    }
+
+    /**
+     * Devuelve el primer campo del objeto. Jackson puede invocar al deserializador con el parser en
+     * START_OBJECT o ya en el primer FIELD_NAME.
+     */
+    private static String firstField(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return p.nextFieldName();
+        }
+        if (token == JsonToken.FIELD_NAME) {
+            return p.currentName();
+        }
+        if (token == JsonToken.END_OBJECT) {
+            return null;
+        }
+        return (String) ctxt.handleUnexpectedToken(type, p);
+    }
+
+    /**
+     * Lee un campo de texto. Como databind, acepta cualquier escalar (un número se lee como su texto) y rechaza
+     * objetos y arrays: si se leyeran con getValueAsString el parser no avanzaría y sus campos se tomarían como
+     * campos del DTO.
+     */
+    private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (p.currentToken().isScalarValue()) {
+            return p.getValueAsString();
+        }
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+    }
+
+    private static boolean readBoolean(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        return (Boolean) ctxt.handleUnexpectedToken(Boolean.TYPE, p);
+    }
+
+    private static UUID readUuid(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            return (UUID) ctxt.handleUnexpectedToken(UUID.class, p);
+        }
+        try {
+            return UUID.fromString(p.getText());
+        } catch (IllegalArgumentException e) {
+            return (UUID) ctxt.handleWeirdStringValue(UUID.class, p.getText(), "UUID no válido");
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeUuid(JsonGenerator gen, SerializableString name, UUID value) throws IOException {
+        writeString(gen, name, value == null ? null : value.toString());
+    }
+
+    private static void writeDate(JsonGenerator gen, SerializerProvider provider, SerializableString name, Date value)
+            throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            provider.defaultSerializeDateValue(value, gen);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.legendme.login.svc.infrastructure.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Configuración de la serialización de los DTOs del login.
+ *
+ * Expone un conversor CBOR ({@code application/cbor}) construido con la misma configuración y módulos que el
+ * ObjectMapper JSON de Spring Boot, más {@link LoginDtoModule}. Los clientes eligen el formato con las cabeceras
+ * Accept y Content-Type; JSON sigue siendo el formato por defecto y se serializa con databind.
+ */
+@Configuration
+public class SerializationConfig {
+
+    /**
+     * @param builder constructor de ObjectMapper configurado por Spring Boot (incluye los módulos registrados).
+     * @return conversor HTTP para {@code application/cbor}.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(mapper.registerModule(new LoginDtoModule()));
+    }
+}
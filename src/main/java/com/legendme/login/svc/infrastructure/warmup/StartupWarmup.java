@@ -0,0 +1,125 @@
+package com.legendme.login.svc.infrastructure.warmup;
+
+import com.legendme.login.svc.adapters.out.http.UserDirectoryClient;
+import com.legendme.login.svc.adapters.out.security.JwtAuthenticationFilter;
+import com.legendme.login.svc.adapters.out.security.JwtAuthenticationFilter.AuthPrincipal;
+import com.legendme.login.svc.adapters.out.security.JwtIssuerImpl;
+import com.legendme.login.svc.adapters.out.security.idtoken.MultiIssuerIdTokenVerifier;
+import com.legendme.login.svc.infrastructure.cache.TieredCache;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fase de warm-up que se ejecuta al arrancar y condiciona la readiness del pod.
+ *
+ * Pasos (en un hilo propio, tras {@link ApplicationReadyEvent}):
+ * 1. Descarga el JWKS de los emisores de idToken habilitados ({@link MultiIssuerIdTokenVerifier#prefetchKeys()}).
+ * 2. Abre conexiones con legendme-users-svc ({@link UserDirectoryClient#warmUpConnections(int)}).
+ * 3. Ejecuta app.warmup.iterations ciclos de firma y verificación con un {@link JwtIssuerImpl} y un
+ *    {@link JwtAuthenticationFilter} creados con una clave desechable (y una caché vacía, para que cada
+ *    iteración verifique la firma), para que el JIT compile ese código antes del primer login real.
+ *    Sus métricas van a un registro aparte y no se publican.
+ *
+ * Como health indicator ("warmup", incluido en el grupo readiness) informa OUT_OF_SERVICE hasta que
+ * el warm-up termina. Un fallo de un paso se registra en los detalles pero no bloquea la readiness:
+ * el pod queda listo con las mismas garantías que sin warm-up.
+ */
+@Slf4j
+@Component("warmup")
+public class StartupWarmup implements HealthIndicator {
+    private final MultiIssuerIdTokenVerifier idTokenVerifier;
+    private final UserDirectoryClient userDirectory;
+    private final boolean enabled;
+    private final int iterations;
+    private final int connections;
+
+    private volatile Health status = Health.outOfService().withDetail("phase", "pending").build();
+
+    public StartupWarmup(
+            MultiIssuerIdTokenVerifier idTokenVerifier,
+            UserDirectoryClient userDirectory,
+            @Value("${app.warmup.enabled:true}") boolean enabled,
+            @Value("${app.warmup.iterations:2000}") int iterations,
+            @Value("${app.warmup.users-svc-connections:4}") int connections) {
+        this.idTokenVerifier = idTokenVerifier;
+        this.userDirectory = userDirectory;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.connections = connections;
+        if (!enabled) {
+            status = Health.up().withDetail("phase", "disabled").build();
+        }
+    }
+
+    @Override
+    public Health health() {
+        return status;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(this::run, "startup-warmup");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        Health.Builder result = Health.up();
+
+        status = Health.outOfService().withDetail("phase", "jwks").build();
+        try {
+            result.withDetail("jwks", idTokenVerifier.prefetchKeys() + " keys");
+        } catch (Exception e) {
+            log.warn("Warm-up: no se pudieron descargar los JWKS: {}", e.getMessage());
+            result.withDetail("jwks", "failed");
+        }
+
+        status = Health.outOfService().withDetail("phase", "users-svc").build();
+        result.withDetail("usersSvcConnections", userDirectory.warmUpConnections(connections) + "/" + connections);
+
+        status = Health.outOfService().withDetail("phase", "jit").build();
+        try {
+            runMintVerifyIterations();
+            result.withDetail("iterations", iterations);
+        } catch (Exception e) {
+            log.warn("Warm-up: fallo en las iteraciones de firma/verificación: {}", e.getMessage());
+            result.withDetail("iterations", "failed");
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        status = result.withDetail("durationMs", millis).build();
+        log.info("Warm-up completado en {} ms", millis);
+    }
+
+    private void runMintVerifyIterations() {
+        byte[] random = new byte[48];
+        ThreadLocalRandom.current().nextBytes(random);
+        String secret = Base64.getEncoder().encodeToString(random);
+        var metrics = new LoginMetrics(new SimpleMeterRegistry());
+        var issuer = new JwtIssuerImpl("warmup", secret, 1, 1, metrics);
+        var filter = new JwtAuthenticationFilter(secret, metrics,
+                new TieredCache<>("warmup", 0, Duration.ZERO, AuthPrincipal.class, null, null, metrics));
+
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < iterations; i++) {
+            var tokens = issuer.pair(userId, "warmup@legendme.local", "Warm Up");
+            filter.verifyToken(tokens.accessToken());
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.legendme.login.svc.shared;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
 import com.legendme.login.svc.shared.dto.Errors;
+import com.legendme.login.svc.shared.exceptions.AuthError;
 import com.legendme.login.svc.shared.exceptions.ErrorException;
+import com.legendme.login.svc.shared.exceptions.RateLimitedException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -12,24 +20,71 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
  * Manejador global de excepciones para la aplicación.
  * Proporciona control centralizado de excepciones y genera respuestas adecuadas
  * para los errores que ocurren durante la ejecución.
+ *
+ * Los cuerpos de los errores del catálogo {@link AuthError} se serializan una sola vez al arrancar, en JSON y en
+ * CBOR, con los mismos mappers que usan los conversores HTTP; una {@link ErrorException} con exactamente el código,
+ * el mensaje y el estado de una entrada del catálogo responde con esos bytes sin crear ni serializar un
+ * {@link Errors}. El resto de errores (u otros formatos en Accept) siguen el camino normal.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+
+    private final LoginMetrics metrics; // Contadores de errores por código.
+    private final byte[][] jsonBodies; // Cuerpos JSON precalculados, por ordinal de AuthError.
+    private final byte[][] cborBodies; // Cuerpos CBOR precalculados, por ordinal de AuthError.
+
+    public GlobalExceptionHandler(LoginMetrics metrics, ObjectMapper mapper,
+                                  MappingJackson2CborHttpMessageConverter cborConverter) {
+        this.metrics = metrics;
+        this.jsonBodies = serialize(mapper);
+        this.cborBodies = serialize(cborConverter.getObjectMapper());
+    }
+
+    private static byte[][] serialize(ObjectMapper mapper) {
+        AuthError[] errors = AuthError.values();
+        byte[][] bodies = new byte[errors.length][];
+        try {
+            for (AuthError error : errors) {
+                bodies[error.ordinal()] = mapper.writeValueAsBytes(new Errors(error.status().value(), error.message()));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los cuerpos de error", e);
+        }
+        return bodies;
+    }
+
     /**
      * Maneja las excepciones de tipo {@link ErrorException}.
      *
      * @param ex  La excepción lanzada.
      * @param req La solicitud HTTP que provocó la excepción.
-     * @return Una respuesta HTTP con el estado y el cuerpo del error.
+     * @return Una respuesta HTTP con el estado y el cuerpo del error (precalculado si el error es del catálogo).
      */
     @ExceptionHandler(ErrorException.class)
-    public ResponseEntity<Errors> handleErrorException(ErrorException ex, HttpServletRequest req) {
+    public ResponseEntity<?> handleErrorException(ErrorException ex, HttpServletRequest req) {
+        metrics.error(ex.errorCode());
         HttpStatus status = ex.status() != null ? ex.status() : HttpStatus.BAD_REQUEST;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (ex instanceof RateLimitedException limited) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(limited.retryAfterSeconds()));
+        }
+        AuthError error = AuthError.byCode(ex.errorCode());
+        if (error != null && error.matches(ex)) {
+            String accept = req.getHeader(HttpHeaders.ACCEPT);
+            if (accept == null || accept.contains(JSON) || accept.contains(MediaType.ALL_VALUE) && !accept.contains(CBOR)) {
+                return response.header(HttpHeaders.CONTENT_TYPE, JSON).body(jsonBodies[error.ordinal()]);
+            }
+            if (accept.contains(CBOR)) {
+                return response.header(HttpHeaders.CONTENT_TYPE, CBOR).body(cborBodies[error.ordinal()]);
+            }
+        }
         Errors body = new Errors(
                 status.value(),
                 ex.getMessage()
         );
-        return ResponseEntity.status(status).body(body);
+        return response.body(body);
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.legendme.login.svc.shared.dto;
 
+import com.legendme.login.svc.shared.logging.Pii;
+
 /**
  * Representa los datos de un usuario obtenidos de Google.
  *
@@ -10,4 +12,14 @@ package com.legendme.login.svc.shared.dto;
  * @param emailVerified Indica si el correo electrónico del usuario ha sido verificado.
  */
 public record GoogleUserPayload(String googleSub, String email, String name, String picture, boolean emailVerified) {
+
+    /**
+     * Representación apta para logs, con los datos personales enmascarados.
+     */
+    @Override
+    public String toString() {
+        return "GoogleUserPayload[googleSub=" + Pii.redact(googleSub) + ", email=" + Pii.email(email)
+                + ", name=" + Pii.redact(name) + ", picture=" + Pii.redact(picture)
+                + ", emailVerified=" + emailVerified + "]";
+    }
 }
@@ -0,0 +1,80 @@
+package com.legendme.login.svc.shared.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Catálogo de los errores del login: código, mensaje y estado HTTP.
+ *
+ * Los mensajes son fijos (no incluyen datos del usuario), de modo que el cuerpo de la respuesta de cada código
+ * se puede serializar una sola vez al arrancar (ver GlobalExceptionHandler).
+ */
+public enum AuthError {
+    INVALID_ISSUER("G-LOG-01", "Issuer invalido", HttpStatus.BAD_REQUEST),
+    INVALID_AUDIENCE("G-LOG-02", "Audience invalido", HttpStatus.BAD_REQUEST),
+    INVALID_EXPIRATION("G-LOG-03", "Expiration invalido", HttpStatus.BAD_REQUEST),
+    INVALID_TOKEN("G-LOG-04", "Token invalido", HttpStatus.UNAUTHORIZED),
+    MISSING_TOKEN("G-LOG-05", "Token de Google no proporcionado", HttpStatus.BAD_REQUEST),
+    EMAIL_NOT_VERIFIED("G-LOG-06", "El email no esta verificado por google", HttpStatus.UNAUTHORIZED),
+    USERS_SVC_STATUS("G-LOG-07", "Error al llamar al servicio de usuarios", HttpStatus.INTERNAL_SERVER_ERROR),
+    USERS_SVC_EMPTY_BODY("G-LOG-08", "Error al llamar al servicio de usuarios", HttpStatus.INTERNAL_SERVER_ERROR),
+    JWT_SIGNING("G-LOG-09", "Error al firmar JWT: valor nulo detectado", HttpStatus.INTERNAL_SERVER_ERROR),
+    INVALID_IDEMPOTENCY_KEY("G-LOG-10", "Idempotency-Key invalido", HttpStatus.BAD_REQUEST),
+    IDEMPOTENCY_KEY_MISMATCH("G-LOG-11", "Idempotency-Key reutilizado con otra solicitud", HttpStatus.UNPROCESSABLE_ENTITY),
+    IDEMPOTENCY_IN_PROGRESS("G-LOG-12", "Solicitud con el mismo Idempotency-Key en curso", HttpStatus.CONFLICT),
+    RATE_LIMITED("G-LOG-13", "Demasiadas solicitudes", HttpStatus.TOO_MANY_REQUESTS);
+
+    private static final Map<String, AuthError> BY_CODE = new HashMap<>();
+
+    static {
+        for (AuthError error : values()) {
+            BY_CODE.put(error.code, error);
+        }
+    }
+
+    private final String code;
+    private final String message;
+    private final HttpStatus status;
+
+    AuthError(String code, String message, HttpStatus status) {
+        this.code = code;
+        this.message = message;
+        this.status = status;
+    }
+
+    /**
+     * @param code Código del error (G-LOG-xx).
+     * @return La entrada del catálogo, o {@code null} si el código no pertenece a él.
+     */
+    public static AuthError byCode(String code) {
+        return code == null ? null : BY_CODE.get(code);
+    }
+
+    /**
+     * @return Una excepción sin traza de la pila para este error.
+     */
+    public AuthFailureException exception() {
+        return new AuthFailureException(this);
+    }
+
+    /**
+     * @return {@code true} si la excepción tiene exactamente el código, el mensaje y el estado de esta entrada.
+     */
+    public boolean matches(ErrorException ex) {
+        return code.equals(ex.errorCode()) && status == ex.status() && message.equals(ex.getMessage());
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+}
@@ -0,0 +1,28 @@
+package com.legendme.login.svc.shared.exceptions;
+
+/**
+ * {@link ErrorException} para los fallos esperados de un login (token inválido, emisor o audience incorrectos,
+ * email sin verificar, Idempotency-Key rechazada...).
+ *
+ * No captura la traza de la pila: son respuestas normales a peticiones incorrectas, no fallos del servicio, y
+ * bajo una avalancha de logins inválidos recorrer la pila en cada rechazo es la parte más cara de la petición.
+ * Los errores inesperados (legendme-users-svc, firma de JWT) siguen usando {@link ErrorException}.
+ */
+public class AuthFailureException extends ErrorException {
+    private final AuthError error;
+
+    /**
+     * @param error Entrada del catálogo de la que se toman el mensaje, el código y el estado HTTP.
+     */
+    public AuthFailureException(AuthError error) {
+        super(error.message(), error.code(), error.status(), false);
+        this.error = error;
+    }
+
+    /**
+     * @return La entrada del catálogo del error.
+     */
+    public AuthError error() {
+        return error;
+    }
+}
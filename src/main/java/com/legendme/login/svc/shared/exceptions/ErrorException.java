@@ -24,6 +24,21 @@ public class ErrorException extends RuntimeException {
         this.status = status;
     }
 
+    /**
+     * Constructor para subclases que permite omitir la traza de la pila (y las excepciones suprimidas),
+     * ver {@link AuthFailureException}.
+     *
+     * @param message            El mensaje descriptivo del error.
+     * @param errorCode          El código de error único asociado con la excepción.
+     * @param status             El estado HTTP asociado con la excepción.
+     * @param writableStackTrace {@code false} para no capturar la traza de la pila.
+     */
+    protected ErrorException(String message, String errorCode, HttpStatus status, boolean writableStackTrace) {
+        super(message, null, writableStackTrace, writableStackTrace);
+        this.errorCode = errorCode;
+        this.status = status;
+    }
+
     /**
      * Obtiene el código de error asociado con la excepción.
      *
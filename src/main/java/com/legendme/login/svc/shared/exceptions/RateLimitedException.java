@@ -0,0 +1,24 @@
+package com.legendme.login.svc.shared.exceptions;
+
+/**
+ * Login rechazado por el rate limiting por sub (G-LOG-13, 429). GlobalExceptionHandler añade la cabecera
+ * Retry-After con {@link #retryAfterSeconds()}.
+ */
+public class RateLimitedException extends AuthFailureException {
+    private final long retryAfterSeconds;
+
+    /**
+     * @param retryAfterMillis Milisegundos estimados hasta que el bucket vuelva a tener un token.
+     */
+    public RateLimitedException(long retryAfterMillis) {
+        super(AuthError.RATE_LIMITED);
+        this.retryAfterSeconds = (retryAfterMillis + 999) / 1000;
+    }
+
+    /**
+     * @return Segundos que el cliente debe esperar antes de reintentar.
+     */
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,42 @@
+package com.legendme.login.svc.shared.logging;
+
+/**
+ * Utilidades para enmascarar datos personales (PII) antes de que lleguen a los logs.
+ *
+ * Se usan desde los {@code toString()} de los DTO que transportan datos del usuario,
+ * de modo que cualquier log que los imprima ya reciba la versión redactada.
+ */
+public final class Pii {
+
+    private static final String REDACTED = "***";
+
+    private Pii() {
+    }
+
+    /**
+     * Enmascara un email conservando la primera letra y el dominio, por ejemplo {@code j***@gmail.com}.
+     *
+     * @param email El email original; puede ser nulo.
+     * @return El email enmascarado, o {@code null} si la entrada es nula.
+     */
+    public static String email(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return REDACTED;
+        }
+        return email.charAt(0) + REDACTED + email.substring(at);
+    }
+
+    /**
+     * Redacta por completo un valor sensible (nombre, apellido, identificadores externos...).
+     *
+     * @param value El valor original; puede ser nulo.
+     * @return {@code ***} si el valor no es nulo, o {@code null} en caso contrario.
+     */
+    public static String redact(Object value) {
+        return value == null ? null : REDACTED;
+    }
+}
@@ -0,0 +1,32 @@
+package com.legendme.login.svc.shared.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide si una línea de log del camino exitoso debe emitirse.
+ *
+ * Los errores siempre se registran; las líneas informativas de logins correctos solo se emiten
+ * con la probabilidad configurada en app.logging.success-sample-rate (0.0 = nunca, 1.0 = siempre),
+ * evitando construir y escribir una línea por cada login bajo carga.
+ */
+@Component
+public class SuccessLogSampler {
+    private final double rate;
+
+    public SuccessLogSampler(@Value("${app.logging.success-sample-rate:0.01}") double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalStateException("app.logging.success-sample-rate debe estar entre 0.0 y 1.0");
+        }
+        this.rate = rate;
+    }
+
+    /**
+     * @return {@code true} si la línea actual debe registrarse.
+     */
+    public boolean sample() {
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -0,0 +1,92 @@
+package com.legendme.login.svc.adapters.out.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.adapters.out.http.dto.UserResponse;
+import com.legendme.login.svc.infrastructure.cache.TieredCache;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.infrastructure.peer.PeerMembership;
+import com.legendme.login.svc.shared.dto.GoogleUserPayload;
+import com.legendme.login.svc.shared.exceptions.ErrorException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.client.RestClient;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PeerUserDirectoryTest {
+
+    private static final GoogleUserPayload PAYLOAD = new GoogleUserPayload("sub-1", "a@x.com", "Ana", null, true);
+    private static final UserResponse USER =
+            new UserResponse(UUID.randomUUID(), "Ana", null, null, "ana", "a@x.com", "GOOGLE", true, null, null);
+
+    private final LoginMetrics metrics = new LoginMetrics(new SimpleMeterRegistry());
+    private final TieredCache<UserResponse> cache = new TieredCache<>("users", 100, Duration.ofMinutes(5),
+            UserResponse.class, null, new ObjectMapper(), metrics);
+    private final AtomicInteger localCalls = new AtomicInteger();
+    private PeerMembership membership;
+
+    /**
+     * Cliente local que, como el real, carga el usuario en la misma caché y con la misma clave.
+     */
+    private final UserDirectoryClient local = new UserDirectoryClient(null, metrics, cache) {
+        @Override
+        public UserResponse upsertGoogleUser(GoogleUserPayload p) {
+            localCalls.incrementAndGet();
+            return cache.get(cacheKey(p), key -> TieredCache.Entry.of(USER, Duration.ofMinutes(1)));
+        }
+    };
+
+    @AfterEach
+    void close() {
+        membership.close();
+    }
+
+    private PeerUserDirectory directory(int ownerPort, Duration timeout) {
+        membership = new PeerMembership(true, List.of("http://127.0.0.1:" + ownerPort), "", 8081, 160,
+                "http://127.0.0.1:8081", Duration.ofHours(1), metrics);
+        var requestFactory = new ReactorClientHttpRequestFactory();
+        requestFactory.setReadTimeout(timeout);
+        var builder = RestClient.builder()
+                .messageConverters(converters -> converters.add(0, new MappingJackson2CborHttpMessageConverter()));
+        return new PeerUserDirectory(local, membership, cache, builder, requestFactory, "peer-secret", metrics);
+    }
+
+    @Test
+    void refusedConnectionFallsBackToTheLocalClient() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        PeerUserDirectory directory = directory(closedPort, Duration.ofSeconds(5));
+
+        UserResponse user = CompletableFuture.supplyAsync(() -> directory.upsertGoogleUser(PAYLOAD))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(USER, user);
+        assertEquals(1, localCalls.get());
+    }
+
+    @Test
+    void ownerTimeoutIsAnErrorWithoutLocalCall() throws Exception {
+        try (ServerSocket silentOwner = new ServerSocket(0)) {
+            PeerUserDirectory directory = directory(silentOwner.getLocalPort(), Duration.ofMillis(200));
+
+            ErrorException e = assertThrows(ErrorException.class, () -> directory.upsertGoogleUser(PAYLOAD));
+
+            assertEquals("G-LOG-07", e.errorCode());
+            assertEquals(0, localCalls.get());
+        }
+    }
+}
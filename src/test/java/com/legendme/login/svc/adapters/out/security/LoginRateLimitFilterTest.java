@@ -0,0 +1,101 @@
+package com.legendme.login.svc.adapters.out.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.infrastructure.audit.LoginAuditLog;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LoginRateLimitFilterTest {
+
+    private static final byte[] BODY = "{\"idToken\":\"tok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final LoginRateLimitFilter filter = new LoginRateLimitFilter(true, 16, 64, 2, 1, new ObjectMapper(),
+            new LoginMetrics(new SimpleMeterRegistry()), LoginAuditLog.disabled());
+
+    private MockHttpServletRequest login(byte[] body) {
+        var request = new MockHttpServletRequest("POST", "/legendme/login/google");
+        request.setRemoteAddr("10.0.0.1");
+        request.setContent(body);
+        return request;
+    }
+
+    @Test
+    void rejectsBodiesOverTheLimitWithoutCallingTheChain() throws Exception {
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+
+        filter.doFilter(login(new byte[65]), response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void replaysTheBodyAlreadyReadToTheRestOfTheChain() throws Exception {
+        var chain = new MockFilterChain();
+
+        filter.doFilter(login(BODY), new MockHttpServletResponse(), chain);
+
+        ServletRequest forwarded = chain.getRequest();
+        assertEquals(BODY.length, forwarded.getContentLength());
+        assertArrayEquals(BODY, forwarded.getInputStream().readAllBytes());
+        assertEquals(new String(BODY, StandardCharsets.UTF_8), forwarded.getReader().readLine());
+
+        // Lectura no bloqueante: el cuerpo entero se entrega en la primera notificación.
+        var in = forwarded.getInputStream();
+        var read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("data");
+                read.write(in.readAllBytes());
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+        assertEquals(List.of("data", "done"), calls);
+        assertArrayEquals(BODY, read.toByteArray());
+    }
+
+    @Test
+    void rejectsTheClientIpOverItsBucketWithRetryAfter() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            var chain = new MockFilterChain();
+            filter.doFilter(login(BODY), new MockHttpServletResponse(), chain);
+            assertEquals(BODY.length, chain.getRequest().getContentLength());
+        }
+
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+        filter.doFilter(login(BODY), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+}
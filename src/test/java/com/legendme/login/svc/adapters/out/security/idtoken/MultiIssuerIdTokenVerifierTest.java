@@ -0,0 +1,182 @@
+package com.legendme.login.svc.adapters.out.security.idtoken;
+
+import com.legendme.login.svc.application.port.out.IdTokenVerifierPort.VerifiedIdToken;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.exceptions.ErrorException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiIssuerIdTokenVerifierTest {
+
+    private static final String GOOGLE_JWKS = "https://google.test/certs";
+    private static final String APPLE_JWKS = "https://apple.test/keys";
+
+    private final Map<String, List<JWK>> published = new ConcurrentHashMap<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final JwksFetcher fetcher = uri -> {
+        fetches.incrementAndGet();
+        return new JWKSet(published.getOrDefault(uri.toString(), List.of()));
+    };
+    private MultiIssuerIdTokenVerifier verifier;
+
+    @AfterEach
+    void close() {
+        if (verifier != null) {
+            verifier.close();
+        }
+    }
+
+    private MultiIssuerIdTokenVerifier verifier(Duration minRefresh) throws Exception {
+        var google = new IdTokenProperties.Issuer(true, Set.of("accounts.google.com", "https://accounts.google.com"),
+                URI.create(GOOGLE_JWKS).toURL(), Set.of("google-client"), Set.of("RS256"),
+                Duration.ofHours(1), minRefresh, false);
+        var apple = new IdTokenProperties.Issuer(true, Set.of("https://appleid.apple.com"),
+                URI.create(APPLE_JWKS).toURL(), Set.of("apple-client", "apple-web"), Set.of("RS256", "ES256"),
+                Duration.ofHours(1), minRefresh, false);
+        var disabled = new IdTokenProperties.Issuer(false, Set.of("https://login.microsoftonline.com/t/v2.0"),
+                URI.create("https://microsoft.test/keys").toURL(), Set.of("ms-client"), Set.of("RS256"),
+                Duration.ofHours(1), minRefresh, true);
+        var properties = new IdTokenProperties(Duration.ofSeconds(60), Duration.ofSeconds(2),
+                Map.of("google", google, "apple", apple, "microsoft", disabled));
+        verifier = new MultiIssuerIdTokenVerifier(properties, fetcher, new LoginMetrics(new SimpleMeterRegistry()));
+        return verifier;
+    }
+
+    private static RSAKey rsa(String kid) throws Exception {
+        return new RSAKeyGenerator(2048).keyID(kid).generate();
+    }
+
+    private static String sign(JWK key, JWSAlgorithm alg, JWTClaimsSet claims) throws Exception {
+        JWSSigner signer = key instanceof ECKey ec ? new ECDSASigner(ec) : new RSASSASigner((RSAKey) key);
+        var jwt = new SignedJWT(new JWSHeader.Builder(alg).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    private static JWTClaimsSet.Builder claims(String iss, String aud) {
+        return new JWTClaimsSet.Builder()
+                .issuer(iss)
+                .audience(aud)
+                .subject("user-1")
+                .claim("email", "user@example.com")
+                .expirationTime(new Date(System.currentTimeMillis() + 600_000));
+    }
+
+    @Test
+    void routesEachTokenToItsIssuerKeys() throws Exception {
+        var googleKey = rsa("g1");
+        var appleKey = new ECKeyGenerator(Curve.P_256).keyID("a1").generate();
+        published.put(GOOGLE_JWKS, List.of(googleKey.toPublicJWK()));
+        published.put(APPLE_JWKS, List.of(appleKey.toPublicJWK()));
+        var verifier = verifier(Duration.ofSeconds(30));
+
+        VerifiedIdToken google = verifier.verify(sign(googleKey, JWSAlgorithm.RS256,
+                claims("https://accounts.google.com", "google-client").claim("email_verified", true).build()));
+        VerifiedIdToken apple = verifier.verify(sign(appleKey, JWSAlgorithm.ES256,
+                claims("https://appleid.apple.com", "apple-web").claim("email_verified", "true").build()));
+
+        assertEquals("google", google.provider());
+        assertTrue(google.emailVerified());
+        assertEquals("apple", apple.provider());
+        assertTrue(apple.emailVerified());
+        assertEquals("user-1", apple.sub());
+    }
+
+    @Test
+    void rejectsUnknownIssuerAudienceAndExpiredTokens() throws Exception {
+        var googleKey = rsa("g1");
+        published.put(GOOGLE_JWKS, List.of(googleKey.toPublicJWK()));
+        var verifier = verifier(Duration.ofSeconds(30));
+
+        String disabledIssuer = sign(googleKey, JWSAlgorithm.RS256,
+                claims("https://login.microsoftonline.com/t/v2.0", "ms-client").build());
+        String otherAudience = sign(googleKey, JWSAlgorithm.RS256,
+                claims("accounts.google.com", "apple-client").build());
+        String expired = sign(googleKey, JWSAlgorithm.RS256, claims("accounts.google.com", "google-client")
+                .expirationTime(new Date(System.currentTimeMillis() - 120_000)).build());
+
+        assertEquals("G-LOG-01", assertThrows(ErrorException.class, () -> verifier.verify(disabledIssuer)).errorCode());
+        assertEquals("G-LOG-02", assertThrows(ErrorException.class, () -> verifier.verify(otherAudience)).errorCode());
+        assertEquals("G-LOG-03", assertThrows(ErrorException.class, () -> verifier.verify(expired)).errorCode());
+    }
+
+    @Test
+    void enabledIssuerWithoutAudiencesFailsAtStartup() throws Exception {
+        var apple = new IdTokenProperties.Issuer(true, Set.of("https://appleid.apple.com"),
+                URI.create(APPLE_JWKS).toURL(), Set.of(" "), Set.of("RS256"),
+                Duration.ofHours(1), Duration.ofSeconds(30), false);
+        var properties = new IdTokenProperties(Duration.ofSeconds(60), Duration.ofSeconds(2), Map.of("apple", apple));
+        var metrics = new LoginMetrics(new SimpleMeterRegistry());
+
+        var e = assertThrows(IllegalStateException.class, () -> new MultiIssuerIdTokenVerifier(properties, fetcher, metrics));
+
+        assertTrue(e.getMessage().contains("app.id-token.issuers.apple.audiences"));
+    }
+
+    @Test
+    void rejectsAlgorithmsNotAllowedForTheIssuerAndForeignSignatures() throws Exception {
+        var googleKey = rsa("g1");
+        var ecKey = new ECKeyGenerator(Curve.P_256).keyID("g1").generate();
+        published.put(GOOGLE_JWKS, List.of(googleKey.toPublicJWK()));
+        var verifier = verifier(Duration.ofSeconds(30));
+
+        String es256 = sign(ecKey, JWSAlgorithm.ES256, claims("accounts.google.com", "google-client").build());
+        String forged = sign(rsa("g1"), JWSAlgorithm.RS256, claims("accounts.google.com", "google-client").build());
+
+        assertEquals("G-LOG-04", assertThrows(ErrorException.class, () -> verifier.verify(es256)).errorCode());
+        assertEquals("G-LOG-04", assertThrows(ErrorException.class, () -> verifier.verify(forged)).errorCode());
+        assertEquals("G-LOG-04", assertThrows(ErrorException.class, () -> verifier.verify("not-a-jwt")).errorCode());
+    }
+
+    @Test
+    void unknownKidRefreshesTheIssuerKeysAtMostOncePerInterval() throws Exception {
+        var oldKey = rsa("k1");
+        var newKey = rsa("k2");
+        published.put(GOOGLE_JWKS, List.of(oldKey.toPublicJWK()));
+        var verifier = verifier(Duration.ZERO);
+
+        verifier.verify(sign(oldKey, JWSAlgorithm.RS256, claims("accounts.google.com", "google-client").build()));
+        published.put(GOOGLE_JWKS, List.of(newKey.toPublicJWK()));
+        verifier.verify(sign(newKey, JWSAlgorithm.RS256, claims("accounts.google.com", "google-client").build()));
+        assertEquals(2, fetches.get());
+
+        String rotatedOut = sign(oldKey, JWSAlgorithm.RS256, claims("accounts.google.com", "google-client").build());
+        assertEquals("G-LOG-04", assertThrows(ErrorException.class, () -> verifier.verify(rotatedOut)).errorCode());
+
+        var limited = verifier(Duration.ofMinutes(5));
+        fetches.set(0);
+        String unknownKid = sign(rsa("k3"), JWSAlgorithm.RS256, claims("accounts.google.com", "google-client").build());
+        for (int i = 0; i < 10; i++) {
+            assertThrows(ErrorException.class, () -> limited.verify(unknownKid));
+        }
+        assertEquals(1, fetches.get());
+    }
+}
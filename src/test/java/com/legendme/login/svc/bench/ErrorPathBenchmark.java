@@ -0,0 +1,117 @@
+package com.legendme.login.svc.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.GlobalExceptionHandler;
+import com.legendme.login.svc.shared.dto.Errors;
+import com.legendme.login.svc.shared.exceptions.AuthError;
+import com.legendme.login.svc.shared.exceptions.ErrorException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de un login rechazado por token inválido: lanzar el error desde el verificador, a stackDepth marcos de
+ * profundidad (la pila de Tomcat + filtros + Spring MVC ronda los 100-150), capturarlo unos marcos más arriba y
+ * obtener el cuerpo de la respuesta.
+ *
+ * - stackTrace: como antes, ErrorException con traza de la pila, re-envuelta en otra ErrorException (G-LOG-04)
+ *   por el verificador de Google y serializada con Jackson en cada petición.
+ * - stackless: {@link AuthError#exception()} propagada sin envolver y cuerpo precalculado de
+ *   {@link GlobalExceptionHandler}.
+ *
+ * Ejecución: {@code mvn test-compile} y después
+ * {@code java -cp target/test-classes:target/classes:<classpath de test> com.legendme.login.svc.bench.ErrorPathBenchmark}.
+ * El coste de capturar la pila depende del JDK: con solo JDK 17 hace falta {@code mvn -Djava.version=17 test-compile}
+ * y los resultados no valen para el JDK 21 de las imágenes. Indicar siempre el JDK con el que se midió.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+    private static final int UNWIND_DEPTH = 10;
+
+    @Param({"120"})
+    private int stackDepth;
+
+    private ObjectMapper mapper;
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        mapper = new ObjectMapper();
+        handler = new GlobalExceptionHandler(new LoginMetrics(new SimpleMeterRegistry()), mapper,
+                new MappingJackson2CborHttpMessageConverter(new CBORMapper()));
+        request = new MockHttpServletRequest();
+        request.addHeader("Accept", "application/json");
+    }
+
+    @Benchmark
+    public Object stackTrace() throws Exception {
+        return descend(stackDepth, false);
+    }
+
+    @Benchmark
+    public Object stackless() throws Exception {
+        return descend(stackDepth, true);
+    }
+
+    /**
+     * Baja stackDepth marcos y, desde ahí, lanza el error a UNWIND_DEPTH marcos de donde se captura (controlador
+     * y DispatcherServlet están cerca del verificador, no en la base de la pila).
+     */
+    private Object descend(int depth, boolean stackless) throws Exception {
+        if (depth > 0) {
+            return descend(depth - 1, stackless);
+        }
+        try {
+            reject(UNWIND_DEPTH, stackless);
+            return null;
+        } catch (ErrorException ex) {
+            if (stackless) {
+                return handler.handleErrorException(ex, request).getBody();
+            }
+            return mapper.writeValueAsBytes(new Errors(ex.status().value(), ex.getMessage()));
+        }
+    }
+
+    private static void reject(int depth, boolean stackless) {
+        if (depth > 0) {
+            reject(depth - 1, stackless);
+            return;
+        }
+        if (stackless) {
+            throw AuthError.INVALID_TOKEN.exception();
+        }
+        try {
+            throw new ErrorException("Issuer invalido", "G-LOG-01", HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            throw new ErrorException("Token invalido", "G-LOG-04", HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ErrorPathBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,174 @@
+package com.legendme.login.svc.infrastructure.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginAuditLogTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoginMetrics metrics = new LoginMetrics(registry);
+
+    private double count(String outcome) {
+        return registry.get("login.audit.events").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void ringBufferRejectsWhenFullAndDrainsInOrder() {
+        var buffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i, 0, 200, "OK", "sub-" + i, null, null));
+        }
+        assertFalse(buffer.offer(4, 0, 200, "OK", "sub-4", null, null));
+
+        List<String> subs = new ArrayList<>();
+        assertEquals(3, buffer.drain(slot -> subs.add(slot.sub), 3));
+        assertTrue(buffer.offer(5, 0, 200, "OK", "sub-5", null, null));
+        assertEquals(2, buffer.drain(slot -> subs.add(slot.sub), 10));
+        assertEquals(List.of("sub-0", "sub-1", "sub-2", "sub-3", "sub-5"), subs);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void everyEventFromConcurrentProducersIsWrittenOrCountedAsDropped() throws Exception {
+        List<String> lines = new ArrayList<>();
+        AuditSink sink = (batch, length, events) ->
+                new String(batch, 0, length, StandardCharsets.UTF_8).lines().forEach(lines::add);
+        var audit = new LoginAuditLog(sink, 256, 64, Duration.ofMillis(1), metrics);
+        var request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("User-Agent", "test \"agent\"");
+
+        int producers = 4;
+        int perProducer = 20_000;
+        var startLine = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread t = new Thread(() -> {
+                try {
+                    startLine.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    audit.record(System.nanoTime(), 401, "G-LOG-04", null, request);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        startLine.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        audit.close();
+
+        assertEquals(producers * perProducer, count("written") + count("dropped"));
+        assertEquals(count("written"), lines.size());
+        JsonNode first = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("G-LOG-04", first.get("result").asText());
+        assertEquals("test \"agent\"", first.get("ua").asText());
+        assertEquals("10.0.0.1", first.get("ip").asText());
+    }
+
+    @Test
+    void fileSinkRotatesIntoGzipFilesAndKeepsTheNewest(@TempDir Path dir) throws Exception {
+        var sink = new RollingGzipFileSink(dir, 100, Duration.ofHours(1), 3);
+        byte[] line = "{\"result\":\"OK\",\"status\":200}\n".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 20; i++) {
+            sink.write(line, line.length, 1);
+        }
+        sink.close();
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.sorted().toList();
+        }
+        assertEquals(3, files.size());
+        int lines = 0;
+        for (Path file : files) {
+            assertTrue(file.getFileName().toString().endsWith(RollingGzipFileSink.SUFFIX));
+            try (var reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                lines += (int) reader.lines().count();
+            }
+        }
+        assertEquals(12, lines);
+    }
+
+    @Test
+    void fileSinkClosesPartFilesLeftByDeadProcesses(@TempDir Path dir) throws Exception {
+        Path dead = dir.resolve("login-audit-20260101T000000Z-999999999-0000.ndjson.gz.part");
+        var crashed = new GZIPOutputStream(Files.newOutputStream(dead), true);
+        crashed.write("{\"n\":1}\n{\"n\":2}\n{\"n\":".getBytes(StandardCharsets.UTF_8));
+        crashed.flush(); // sin close(): el proceso murió antes de rotar
+        Path empty = Files.createFile(dir.resolve("login-audit-20260101T000000Z-999999998-0000.ndjson.gz.part"));
+        long alivePid = ProcessHandle.current().parent().orElseThrow().pid();
+        Path alive = Files.createFile(
+                dir.resolve("login-audit-20260101T000000Z-" + alivePid + "-0000.ndjson.gz.part"));
+
+        new RollingGzipFileSink(dir, 100, Duration.ofHours(1), 3).close();
+
+        Path closed = dir.resolve("login-audit-20260101T000000Z-999999999-0000.ndjson.gz");
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(closed)), StandardCharsets.UTF_8))) {
+            assertEquals(List.of("{\"n\":1}", "{\"n\":2}"), reader.lines().toList());
+        }
+        assertFalse(Files.exists(dead));
+        assertFalse(Files.exists(empty));
+        assertTrue(Files.exists(alive));
+    }
+
+    @Test
+    void stoppingClosesTheCurrentFileAndTheNextEventReopensIt(@TempDir Path dir) throws Exception {
+        var audit = new LoginAuditLog(new RollingGzipFileSink(dir, 1 << 20, Duration.ofHours(1), 10),
+                64, 16, Duration.ofMillis(1), metrics);
+        var request = new MockHttpServletRequest();
+        audit.start();
+        audit.record(System.nanoTime(), 200, LoginAuditLog.RESULT_OK, "sub-1", request);
+
+        audit.stop();
+        assertFalse(audit.isRunning());
+        assertEquals(List.of(), parts(dir));
+        assertEquals(1, closedFiles(dir).size());
+
+        audit.start();
+        audit.record(System.nanoTime(), 200, LoginAuditLog.RESULT_OK, "sub-2", request);
+        audit.close();
+        assertEquals(List.of(), parts(dir));
+        assertEquals(2, closedFiles(dir).size());
+    }
+
+    private static List<Path> parts(Path dir) throws Exception {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.filter(f -> f.toString().endsWith(".part")).toList();
+        }
+    }
+
+    private static List<Path> closedFiles(Path dir) throws Exception {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.filter(f -> f.toString().endsWith(RollingGzipFileSink.SUFFIX)).toList();
+        }
+    }
+}
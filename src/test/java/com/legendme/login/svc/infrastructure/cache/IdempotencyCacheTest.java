@@ -0,0 +1,101 @@
+package com.legendme.login.svc.infrastructure.cache;
+
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.exceptions.ErrorException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyCacheTest {
+
+    private final LoginMetrics metrics = new LoginMetrics(new SimpleMeterRegistry());
+    private final IdempotencyCache<String> cache =
+            new IdempotencyCache<>(100, Duration.ofMinutes(10), Duration.ofSeconds(5), metrics);
+
+    @Test
+    void retryWithSameKeyAndBodyReplaysTheFirstResult() {
+        var calls = new AtomicInteger();
+        var first = cache.execute("k1", "body", () -> "tokens-" + calls.incrementAndGet());
+        var retry = cache.execute("k1", "body", () -> "tokens-" + calls.incrementAndGet());
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals("tokens-1", retry.value());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() {
+        cache.execute("k1", "body", () -> "tokens");
+
+        var ex = assertThrows(ErrorException.class, () -> cache.execute("k1", "other", () -> "tokens"));
+        assertEquals("G-LOG-11", ex.errorCode());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.status());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheInFlightResult() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var calls = new AtomicInteger();
+        var original = CompletableFuture.supplyAsync(() -> cache.execute("k1", "body", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "tokens";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        var duplicate = CompletableFuture.supplyAsync(() -> cache.execute("k1", "body", () -> {
+            calls.incrementAndGet();
+            return "other";
+        }));
+
+        release.countDown();
+        assertEquals("tokens", original.get(5, TimeUnit.SECONDS).value());
+        assertEquals("tokens", duplicate.get(5, TimeUnit.SECONDS).value());
+        assertTrue(duplicate.get().replayed());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void failuresAreSharedWithWaitersButNotStored() {
+        var failure = new ErrorException("Token invalido", "G-LOG-04", HttpStatus.UNAUTHORIZED);
+        assertSame(failure, assertThrows(ErrorException.class,
+                () -> cache.execute("k1", "body", () -> { throw failure; })));
+
+        var retry = cache.execute("k1", "body", () -> "tokens");
+        assertFalse(retry.replayed());
+        assertEquals("tokens", retry.value());
+    }
+
+    @Test
+    void errorsReleaseTheKey() {
+        var failure = new StackOverflowError();
+        assertSame(failure, assertThrows(StackOverflowError.class,
+                () -> cache.execute("k1", "body", () -> { throw failure; })));
+
+        var retry = cache.execute("k1", "body", () -> "tokens");
+        assertFalse(retry.replayed());
+        assertEquals("tokens", retry.value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.legendme.login.svc.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sustituto en memoria de L2 para tests. Cada instancia representa la conexión de una réplica
+ * contra un {@link Server} compartido.
+ */
+class InMemoryRemoteCacheTier implements RemoteCacheTier {
+    private final Server server;
+
+    InMemoryRemoteCacheTier(Server server) {
+        this.server = server;
+    }
+
+    @Override
+    public String get(String key) {
+        Value value = server.data.get(key);
+        if (value == null || value.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return value.value();
+    }
+
+    @Override
+    public void set(String key, String value, Duration ttl) {
+        server.data.put(key, new Value(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    static final class Server {
+        final Map<String, Value> data = new ConcurrentHashMap<>();
+    }
+
+    record Value(String value, long expiresAt) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.legendme.login.svc.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.login.svc.infrastructure.cache.TieredCache.Entry;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TieredCacheTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoginMetrics metrics = new LoginMetrics(registry);
+    private final InMemoryRemoteCacheTier.Server server = new InMemoryRemoteCacheTier.Server();
+
+    record User(String id, String email) {
+    }
+
+    private TieredCache<User> replica() {
+        return new TieredCache<>("users", 100, Duration.ofMinutes(5), User.class,
+                new InMemoryRemoteCacheTier(server), mapper, metrics);
+    }
+
+    private double count(String result) {
+        return registry.get("login.cache.requests").tag("cache", "users").tag("result", result).counter().count();
+    }
+
+    @Test
+    void valueWrittenByOneReplicaIsReadFromL2ByAnother() {
+        var a = replica();
+        var b = replica();
+
+        a.put("sub-1", Entry.of(new User("1", "a@x.com"), Duration.ofMinutes(1)));
+
+        assertEquals(new User("1", "a@x.com"), b.getIfPresent("sub-1"));
+        assertEquals(new User("1", "a@x.com"), b.getIfPresent("sub-1"));
+        assertEquals(1, count("l2_hit"));
+        assertEquals(1, count("l1_hit"));
+    }
+
+    @Test
+    void entriesExpireWithTheirOwnDeadline() throws Exception {
+        var a = replica();
+        a.put("sub-1", Entry.until(new User("1", "a@x.com"), Instant.now().plusMillis(50)));
+        a.put("sub-2", Entry.of(new User("2", "b@x.com"), Duration.ofMinutes(1)));
+
+        Thread.sleep(100);
+
+        assertNull(a.getIfPresent("sub-1"));
+        assertEquals("2", a.getIfPresent("sub-2").id());
+    }
+
+    @Test
+    void concurrentLoadsOfTheSameKeyCallTheLoaderOnce() throws Exception {
+        var a = replica();
+        var calls = new AtomicInteger();
+        var release = new CountDownLatch(1);
+
+        var first = CompletableFuture.supplyAsync(() -> a.get("sub-1", k -> {
+            calls.incrementAndGet();
+            await(release);
+            return Entry.of(new User("1", "a@x.com"), Duration.ofMinutes(1));
+        }));
+        while (calls.get() == 0) {
+            Thread.onSpinWait();
+        }
+        var second = CompletableFuture.supplyAsync(() -> a.get("sub-1", k -> {
+            calls.incrementAndGet();
+            return Entry.of(new User("1", "other@x.com"), Duration.ofMinutes(1));
+        }));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("a@x.com", first.get().email());
+        assertEquals("a@x.com", second.get().email());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void loaderFailuresPropagateAndAreNotCached() {
+        var a = replica();
+
+        assertThrows(IllegalStateException.class, () -> a.get("sub-1", k -> {
+            throw new IllegalStateException("users-svc caído");
+        }));
+        assertEquals("1", a.get("sub-1", k -> Entry.of(new User("1", "a@x.com"), Duration.ofMinutes(1))).id());
+    }
+
+    @Test
+    void worksWithoutRemoteTier() {
+        var local = new TieredCache<>("users", 100, Duration.ofMinutes(5), User.class, null, mapper, metrics);
+        local.put("sub-1", Entry.of(new User("1", "a@x.com"), Duration.ofMinutes(1)));
+
+        assertEquals("1", local.getIfPresent("sub-1").id());
+        assertNull(local.getIfPresent("sub-2"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.legendme.login.svc.infrastructure.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simula un users-svc stub cuya latencia crece linealmente por encima de su capacidad
+ * y comprueba que el límite adaptativo converge a esa capacidad y la sigue cuando cambia.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASE_RTT_NANOS = 20_000_000L;
+
+    @Test
+    void limitConvergesToStubCapacityAndFollowsItsChanges() {
+        var limiter = new AdaptiveConcurrencyLimiter(50, 4, 200, 1.2, 0.2, 0.9, 30);
+
+        double atCapacity20 = runSaturated(limiter, 20, 200);
+        assertTrue(atCapacity20 >= 16 && atCapacity20 <= 35, "limit=" + atCapacity20);
+
+        double atCapacity10 = runSaturated(limiter, 10, 200);
+        assertTrue(atCapacity10 >= 8 && atCapacity10 <= 20, "limit=" + atCapacity10);
+
+        double atCapacity60 = runSaturated(limiter, 60, 200);
+        assertTrue(atCapacity60 >= 45, "limit=" + atCapacity60);
+    }
+
+    @Test
+    void rejectsAboveLimitAndBacksOffOnDrops() {
+        var limiter = new AdaptiveConcurrencyLimiter(4, 2, 10, 1.2, 0.2, 0.5, 100);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        // La ventana mínima es de 10 muestras; una sola caída en ella reduce el límite a la mitad.
+        limiter.release(BASE_RTT_NANOS, true);
+        for (int i = 0; i < 9; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(BASE_RTT_NANOS, false);
+        }
+        assertEquals(2, limiter.getLimit());
+        limiter.release(BASE_RTT_NANOS, false);
+        limiter.release(BASE_RTT_NANOS, false);
+        limiter.release(BASE_RTT_NANOS, false);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void releasesWithoutSampleDoNotMoveTheLimit() {
+        var limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.2, 0.2, 0.9, 1000);
+        runSaturated(limiter, 20, 50);
+        int before = limiter.getLimit();
+
+        // Una avalancha de rechazos 4xx rápidos no entra en la ventana ni altera la latencia mínima.
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release();
+        }
+        assertEquals(before, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Cada ronda admite tantas peticiones como permite el límite y las completa con la latencia
+     * que tendría un users-svc de la capacidad indicada con esa concurrencia.
+     *
+     * @return el límite medio durante la segunda mitad de las rondas.
+     */
+    private static double runSaturated(AdaptiveConcurrencyLimiter limiter, int capacity, int rounds) {
+        long sum = 0;
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            long rtt = (long) (BASE_RTT_NANOS * Math.max(1.0, (double) admitted / capacity));
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rtt, false);
+            }
+            if (round >= rounds / 2) {
+                sum += limiter.getLimit();
+            }
+        }
+        return (double) sum / (rounds - rounds / 2);
+    }
+}
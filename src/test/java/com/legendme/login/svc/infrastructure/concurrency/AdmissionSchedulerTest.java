@@ -0,0 +1,56 @@
+package com.legendme.login.svc.infrastructure.concurrency;
+
+import com.legendme.login.svc.infrastructure.concurrency.AdmissionScheduler.Decision;
+import com.legendme.login.svc.infrastructure.concurrency.AdmissionScheduler.RequestClass;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionSchedulerTest {
+
+    private static final long WAIT = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void loginsCannotTakeTheCapacityReservedForAuthenticatedUsers() throws Exception {
+        var scheduler = new AdmissionScheduler(3, 1, 5, WAIT, 5, WAIT);
+
+        assertEquals(Decision.ADMITTED, scheduler.admit(RequestClass.LOGIN, System.nanoTime()));
+        assertEquals(Decision.SHED_DEADLINE, scheduler.admit(RequestClass.LOGIN, System.nanoTime()));
+        assertEquals(Decision.ADMITTED, scheduler.admit(RequestClass.AUTHENTICATED, System.nanoTime()));
+        assertEquals(Decision.ADMITTED, scheduler.admit(RequestClass.AUTHENTICATED, System.nanoTime()));
+    }
+
+    @Test
+    void loginsAreShedWhileAuthenticatedRequestsAreQueued() throws Exception {
+        var scheduler = new AdmissionScheduler(1, 1, 5, TimeUnit.SECONDS.toNanos(5), 5, WAIT);
+        assertEquals(Decision.ADMITTED, scheduler.admit(RequestClass.AUTHENTICATED, System.nanoTime()));
+
+        var queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return scheduler.admit(RequestClass.AUTHENTICATED, System.nanoTime());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (scheduler.getAuthenticatedWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(Decision.SHED_QUEUE_FULL, scheduler.admit(RequestClass.LOGIN, System.nanoTime()));
+
+        scheduler.release(RequestClass.AUTHENTICATED);
+        assertEquals(Decision.ADMITTED, queued.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void requestsThatAlreadyExceededTheirDeadlineAreDropped() throws Exception {
+        var scheduler = new AdmissionScheduler(1, 1, 5, WAIT, 5, WAIT);
+        assertEquals(Decision.ADMITTED, scheduler.admit(RequestClass.AUTHENTICATED, System.nanoTime()));
+
+        long arrivedLongAgo = System.nanoTime() - 2 * WAIT;
+        assertEquals(Decision.SHED_DEADLINE, scheduler.admit(RequestClass.AUTHENTICATED, arrivedLongAgo));
+    }
+}
@@ -0,0 +1,65 @@
+package com.legendme.login.svc.infrastructure.peer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+    private static final List<String> THREE = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    @Test
+    void keysAreSpreadEvenlyAcrossMembers() {
+        var ring = new ConsistentHashRing(THREE, 160);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.owner("sub-" + i), 1, Integer::sum);
+        }
+        for (String member : THREE) {
+            double share = counts.get(member) / (double) KEYS;
+            assertTrue(Math.abs(share - 1.0 / 3) < 0.05, member + " share " + share);
+        }
+    }
+
+    @Test
+    void addingAMemberOnlyMovesKeysToTheNewMember() {
+        var before = new ConsistentHashRing(THREE, 160);
+        var after = new ConsistentHashRing(List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080"), 160);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "sub-" + i;
+            String oldOwner = before.owner(key);
+            String newOwner = after.owner(key);
+            if (!oldOwner.equals(newOwner)) {
+                assertEquals("http://d:8080", newOwner);
+                moved++;
+            }
+        }
+        double share = moved / (double) KEYS;
+        assertTrue(Math.abs(share - 0.25) < 0.05, "moved " + share);
+    }
+
+    @Test
+    void removingAMemberOnlyMovesItsKeys() {
+        var before = new ConsistentHashRing(THREE, 160);
+        var after = new ConsistentHashRing(List.of("http://a:8080", "http://c:8080"), 160);
+        for (int i = 0; i < KEYS; i++) {
+            String key = "sub-" + i;
+            if (!before.owner(key).equals("http://b:8080")) {
+                assertEquals(before.owner(key), after.owner(key));
+            }
+        }
+    }
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertNull(new ConsistentHashRing(List.of(), 160).owner("sub-1"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.legendme.login.svc.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTableTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void allowsABurstUpToCapacityAndThenReportsTheWaitForTheNextToken() {
+        var buckets = new TokenBucketTable(16, 3, 2, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("10.0.0.1"));
+        }
+        assertEquals(500, buckets.tryAcquire("10.0.0.1"));
+
+        clock.set(200);
+        assertEquals(300, buckets.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    void refillsWithElapsedTimeWithoutExceedingCapacity() {
+        var buckets = new TokenBucketTable(16, 2, 1, clock::get);
+        buckets.tryAcquire("sub-1");
+        buckets.tryAcquire("sub-1");
+
+        clock.set(999);
+        assertEquals(1, buckets.tryAcquire("sub-1"));
+        clock.set(1_000);
+        assertEquals(0, buckets.tryAcquire("sub-1"));
+
+        // Una hora parado no da más tokens que la capacidad.
+        clock.set(3_600_000);
+        assertEquals(0, buckets.tryAcquire("sub-1"));
+        assertEquals(0, buckets.tryAcquire("sub-1"));
+        assertEquals(1_000, buckets.tryAcquire("sub-1"));
+    }
+
+    @Test
+    void keepsTheStampWhileTheRefillIsBelowAThousandthOfAToken() {
+        // 0,1 tokens/s: 0,1 milésimas por ms, así que a los 5 ms aún no se ha recargado nada.
+        var buckets = new TokenBucketTable(16, 2, 0.1, clock::get);
+        assertEquals(0, buckets.tryAcquire("sub-1"));
+        clock.set(5);
+        assertEquals(0, buckets.tryAcquire("sub-1"));
+
+        // Si el segundo acquire hubiera movido el instante a 5 ms, a los 10 s aún faltarían 5 ms.
+        clock.set(9_995);
+        assertEquals(10, buckets.tryAcquire("sub-1"));
+        clock.set(10_000);
+        assertEquals(0, buckets.tryAcquire("sub-1"));
+    }
+
+    @Test
+    void stampsBeyondTheDeficitBitsDoNotLeakIntoTheDeficit() {
+        // 2^40 ms (unos 35 años): el instante ocupa bits muy por encima de los 20 del déficit.
+        clock.set(1L << 40);
+        var buckets = new TokenBucketTable(16, 1_000, 1, clock::get);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, buckets.tryAcquire("10.0.0.1"));
+        }
+        assertEquals(1_000, buckets.tryAcquire("10.0.0.1"));
+
+        clock.addAndGet(1_000);
+        assertEquals(0, buckets.tryAcquire("10.0.0.1"));
+        assertEquals(1_000, buckets.tryAcquire("10.0.0.1"));
+    }
+}
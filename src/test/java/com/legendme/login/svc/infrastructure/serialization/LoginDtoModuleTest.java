@@ -0,0 +1,68 @@
+package com.legendme.login.svc.infrastructure.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.legendme.login.svc.adapters.out.http.dto.UserRequest;
+import com.legendme.login.svc.adapters.out.http.dto.UserResponse;
+import com.legendme.login.svc.application.port.in.AuthController.AuthResponse;
+import com.legendme.login.svc.application.port.in.AuthController.GoogleSignInRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginDtoModuleTest {
+
+    private final ObjectMapper databind = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ObjectMapper streaming = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .registerModule(new LoginDtoModule());
+
+    private final UserResponse user = new UserResponse(UUID.randomUUID(), "Ana", null, new Date(0), "ana",
+            "ana@x.com", "GOOGLE", true, new Date(1_700_000_000_000L), null);
+
+    @Test
+    void writesTheSameJsonAsDatabind() throws Exception {
+        var auth = new AuthResponse("access", "refresh", UUID.randomUUID(), "ana@x.com", null);
+        var request = new UserRequest("Ana", "", null, "ana", "ana@x.com", null, "GOOGLE");
+
+        assertEquals(databind.writeValueAsString(auth), streaming.writeValueAsString(auth));
+        assertEquals(databind.writeValueAsString(request), streaming.writeValueAsString(request));
+        assertEquals(databind.writeValueAsString(user), streaming.writeValueAsString(user));
+    }
+
+    @Test
+    void readsWhatDatabindWritesIgnoringUnknownFields() throws Exception {
+        String json = databind.writeValueAsString(user).replace("{", "{\"extra\":{\"a\":[1,2]},");
+
+        assertEquals(user, streaming.readValue(json, UserResponse.class));
+        assertEquals(new GoogleSignInRequest("tok"), streaming.readValue("{\"x\":1,\"idToken\":\"tok\"}", GoogleSignInRequest.class));
+        assertNull(streaming.readValue("{\"idToken\":null}", GoogleSignInRequest.class).idToken());
+    }
+
+    @Test
+    void rejectsObjectsAndArraysWhereAScalarIsExpectedLikeDatabind() {
+        for (String json : new String[]{"{\"idToken\":{\"idToken\":\"x\"}}", "{\"idToken\":[\"x\"]}"}) {
+            assertThrows(MismatchedInputException.class, () -> databind.readValue(json, GoogleSignInRequest.class));
+            assertThrows(MismatchedInputException.class, () -> streaming.readValue(json, GoogleSignInRequest.class));
+        }
+        assertThrows(MismatchedInputException.class,
+                () -> streaming.readValue("{\"email\":{\"email\":\"a@x.com\"}}", UserResponse.class));
+        assertThrows(MismatchedInputException.class,
+                () -> streaming.readValue("{\"active\":{\"active\":true}}", UserResponse.class));
+    }
+
+    @Test
+    void roundTripsThroughCbor() throws Exception {
+        var cbor = new CBORMapper().registerModule(new LoginDtoModule());
+
+        assertEquals(user, cbor.readValue(cbor.writeValueAsBytes(user), UserResponse.class));
+        assertEquals(new GoogleSignInRequest("tok"),
+                cbor.readValue(cbor.writeValueAsBytes(new GoogleSignInRequest("tok")), GoogleSignInRequest.class));
+    }
+}
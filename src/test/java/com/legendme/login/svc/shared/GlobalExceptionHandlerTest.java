@@ -0,0 +1,58 @@
+package com.legendme.login.svc.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.legendme.login.svc.infrastructure.metrics.LoginMetrics;
+import com.legendme.login.svc.shared.dto.Errors;
+import com.legendme.login.svc.shared.exceptions.AuthError;
+import com.legendme.login.svc.shared.exceptions.ErrorException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GlobalExceptionHandlerTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new CBORMapper();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(
+            new LoginMetrics(new SimpleMeterRegistry()), json, new MappingJackson2CborHttpMessageConverter(cbor));
+
+    @Test
+    void catalogErrorsAreStacklessAndAnsweredWithPrecomputedBytes() throws Exception {
+        var ex = AuthError.INVALID_TOKEN.exception();
+        assertEquals(0, ex.getStackTrace().length);
+
+        var request = new MockHttpServletRequest();
+        var first = handler.handleErrorException(ex, request);
+        var second = handler.handleErrorException(AuthError.INVALID_TOKEN.exception(), request);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, first.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        assertSame(first.getBody(), second.getBody());
+        assertArrayEquals(json.writeValueAsBytes(new Errors(401, "Token invalido")), (byte[]) first.getBody());
+
+        request.addHeader("Accept", MediaType.APPLICATION_CBOR_VALUE);
+        var fromCbor = handler.handleErrorException(AuthError.IDEMPOTENCY_IN_PROGRESS.exception(), request);
+        assertEquals(MediaType.APPLICATION_CBOR, fromCbor.getHeaders().getContentType());
+        assertEquals(new Errors(409, "Solicitud con el mismo Idempotency-Key en curso"),
+                cbor.readValue((byte[]) fromCbor.getBody(), Errors.class));
+    }
+
+    @Test
+    void errorsOutsideTheCatalogAreSerializedPerRequest() {
+        var withStack = new ErrorException("Error al llamar al servicio de usuarios", "G-LOG-07",
+                HttpStatus.INTERNAL_SERVER_ERROR);
+        var otherMessage = new ErrorException("Otro mensaje", "G-LOG-04", HttpStatus.UNAUTHORIZED);
+        var request = new MockHttpServletRequest();
+
+        assertEquals(byte[].class, handler.handleErrorException(withStack, request).getBody().getClass());
+        assertEquals(new Errors(401, "Otro mensaje"), handler.handleErrorException(otherMessage, request).getBody());
+    }
+}